@@ -16,11 +16,13 @@
 package com.vaadin.flow.demo;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
+@Push
 public class Application implements AppShellConfigurator {
 
     public static void main(String[] args) {
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Delivers chat messages to everyone in a room, across sessions.
+ * <p>
+ * Each room keeps its subscribers in a concurrent set, so publishing and
+ * joining never wait for each other. Publishing only puts the message in
+ * each subscriber's queue. The queue is bounded: when a subscriber falls
+ * behind, its oldest messages are dropped and it is told how many it missed.
+ * A subscriber has at most one delivery scheduled at a time. The delivery
+ * runs on a virtual thread after a short batching window and hands over
+ * everything queued by then in one UI access, so a burst of messages costs
+ * one push per subscriber instead of one per message.
+ */
+public final class ChatBroadcaster {
+
+    private static final Executor DELIVERY = Executors
+            .newVirtualThreadPerTaskExecutor();
+
+    private static final ChatBroadcaster SHARED = new ChatBroadcaster(100, 50,
+            Duration.ofMillis(50));
+
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final int queueCapacity;
+    private final int historySize;
+    private final Executor batching;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a broadcaster.
+     *
+     * @param queueCapacity
+     *            the number of messages queued per subscriber before the
+     *            oldest are dropped
+     * @param historySize
+     *            the number of recent messages kept per room for people
+     *            joining
+     * @param batchWindow
+     *            how long a delivery waits for more messages to batch
+     */
+    public ChatBroadcaster(int queueCapacity, int historySize,
+            Duration batchWindow) {
+        this.queueCapacity = queueCapacity;
+        this.historySize = historySize;
+        this.batching = CompletableFuture.delayedExecutor(
+                batchWindow.toNanos(), TimeUnit.NANOSECONDS, DELIVERY);
+    }
+
+    /**
+     * Returns the broadcaster shared by all sessions.
+     */
+    public static ChatBroadcaster shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sends a message to everyone in the given room.
+     */
+    public void publish(String room, String author, String text) {
+        Message message = new Message(author, text, Instant.now());
+        Room target = room(room);
+        target.remember(message);
+        published.increment();
+        for (Subscription subscription : target.subscriptions) {
+            subscription.offer(message);
+        }
+    }
+
+    /**
+     * Returns the most recent messages of the given room, oldest first.
+     */
+    public List<Message> history(String room) {
+        return room(room).history();
+    }
+
+    /**
+     * Delivers the messages published to the given room from now on to the
+     * listener in the UI thread of the given UI, until the registration is
+     * removed or the UI is detached.
+     */
+    public Registration subscribe(String room, UI ui,
+            SerializableConsumer<Batch> listener) {
+        Subscription[] self = new Subscription[1];
+        self[0] = subscribe(room, command -> {
+            try {
+                ui.access(command::run);
+            } catch (UIDetachedException e) {
+                self[0].remove();
+            }
+        }, listener);
+        return self[0]::remove;
+    }
+
+    /**
+     * Delivers the messages published to the given room from now on to the
+     * listener through the given executor.
+     */
+    Subscription subscribe(String room, Executor delivery,
+            Consumer<Batch> listener) {
+        Room target = room(room);
+        Subscription subscription = new Subscription(target, delivery,
+                listener);
+        target.subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private Room room(String name) {
+        return rooms.computeIfAbsent(name, key -> new Room());
+    }
+
+    /**
+     * Returns a snapshot of the broadcaster statistics.
+     */
+    public Statistics getStatistics() {
+        int subscribers = 0;
+        for (Room room : rooms.values()) {
+            subscribers += room.subscriptions.size();
+        }
+        return new Statistics(rooms.size(), subscribers, published.sum(),
+                delivered.sum(), batches.sum(), dropped.sum());
+    }
+
+    private final class Room {
+
+        private final Set<Subscription> subscriptions = ConcurrentHashMap
+                .newKeySet();
+        private final ArrayDeque<Message> history = new ArrayDeque<>();
+
+        synchronized void remember(Message message) {
+            if (history.size() == historySize) {
+                history.removeFirst();
+            }
+            history.addLast(message);
+        }
+
+        synchronized List<Message> history() {
+            return new ArrayList<>(history);
+        }
+    }
+
+    /**
+     * One subscriber's queue and delivery state.
+     */
+    final class Subscription {
+
+        private final Room room;
+        private final Executor delivery;
+        private final Consumer<Batch> listener;
+        private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger missed = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscription(Room room, Executor delivery,
+                Consumer<Batch> listener) {
+            this.room = room;
+            this.delivery = delivery;
+            this.listener = listener;
+        }
+
+        void offer(Message message) {
+            queue.add(message);
+            if (size.incrementAndGet() > queueCapacity
+                    && queue.poll() != null) {
+                size.decrementAndGet();
+                missed.incrementAndGet();
+                dropped.increment();
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                batching.execute(() -> delivery.execute(this::drain));
+            }
+        }
+
+        private void drain() {
+            // Messages arriving from here on schedule another delivery
+            scheduled.set(false);
+            List<Message> messages = new ArrayList<>();
+            Message message;
+            while ((message = queue.poll()) != null) {
+                messages.add(message);
+            }
+            size.addAndGet(-messages.size());
+            int skipped = missed.getAndSet(0);
+            if (messages.isEmpty() && skipped == 0) {
+                return;
+            }
+            batches.increment();
+            delivered.add(messages.size());
+            listener.accept(new Batch(messages, skipped));
+        }
+
+        void remove() {
+            room.subscriptions.remove(this);
+        }
+    }
+
+    /**
+     * A chat message.
+     */
+    public record Message(String author, String text, Instant time) {
+    }
+
+    /**
+     * The messages delivered at once to a subscriber, with the number of
+     * older ones dropped because the subscriber fell behind.
+     */
+    public record Batch(List<Message> messages, int dropped) {
+    }
+
+    /**
+     * Broadcaster statistics.
+     */
+    public record Statistics(int rooms, int subscribers, long published,
+            long delivered, long batches, long dropped) {
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A synthetic catalogue of one million distinct city names, shared by all
+ * sessions.
+ * <p>
+ * The names are generated deterministically from consonant-vowel syllables, so
+ * the catalogue needs no external data. Each index is built on first use.
+ */
+public final class CityCatalogue {
+
+    /** Number of cities in the catalogue. */
+    public static final int SIZE = 1_000_000;
+
+    /** Number of cities in the typo-tolerant search index. */
+    public static final int FUZZY_SIZE = 500_000;
+
+    private static final String[] CONSONANTS = { "b", "d", "f", "g", "h", "k",
+            "l", "m", "n", "p", "r", "s", "t", "v", "z" };
+    private static final String[] VOWELS = { "a", "e", "i", "o", "u" };
+    private static final String[] SUFFIXES = { "", " Falls", " Springs",
+            " Heights" };
+
+    private CityCatalogue() {
+    }
+
+    /**
+     * Returns the shared prefix index over all city names.
+     */
+    public static PrefixIndex getIndex() {
+        return Holder.INDEX;
+    }
+
+    /**
+     * Returns the shared typo-tolerant index over the first
+     * {@link #FUZZY_SIZE} city names.
+     */
+    public static FuzzyIndex getFuzzyIndex() {
+        return FuzzyHolder.INDEX;
+    }
+
+    /**
+     * Generates the given number of distinct city names.
+     */
+    public static List<String> generateNames(int count) {
+        List<String> syllables = new ArrayList<>();
+        for (String consonant : CONSONANTS) {
+            for (String vowel : VOWELS) {
+                syllables.add(consonant + vowel);
+            }
+        }
+
+        // Every syllable has exactly two letters, so distinct syllable
+        // combinations always produce distinct names
+        List<String> names = new ArrayList<>(count);
+        int s = syllables.size();
+        for (String suffix : SUFFIXES) {
+            for (int i = 0; i < s * s * s; i++) {
+                if (names.size() == count) {
+                    return names;
+                }
+                String name = syllables.get(i / (s * s))
+                        + syllables.get(i / s % s) + syllables.get(i % s);
+                names.add(Character.toUpperCase(name.charAt(0))
+                        + name.substring(1) + suffix);
+            }
+        }
+        return names;
+    }
+
+    private static final class Holder {
+        private static final PrefixIndex INDEX = PrefixIndex
+                .of(generateNames(SIZE));
+    }
+
+    private static final class FuzzyHolder {
+        private static final FuzzyIndex INDEX = FuzzyIndex
+                .of(generateNames(FUZZY_SIZE));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts how many points of a large two-dimensional dataset fall into each
+ * cell of a grid over a viewport, so a heatmap only needs the cells.
+ * <p>
+ * The dataset is read in chunks. A fork-join task splits the chunks in
+ * halves until each task has one chunk, counts into a grid of its own, and
+ * adds the grids together on the way back up, so no counter is shared
+ * between threads.
+ */
+public final class DensityGrid {
+
+    private DensityGrid() {
+    }
+
+    /**
+     * A dataset that can be read one chunk at a time, from any thread.
+     */
+    public interface PointSource {
+
+        /**
+         * Returns the number of chunks.
+         */
+        int chunkCount();
+
+        /**
+         * Passes every point of the given chunk to the consumer.
+         */
+        void forEachInChunk(int chunk, PointConsumer consumer);
+    }
+
+    /**
+     * Receives the coordinates of one point.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(double x, double y);
+    }
+
+    /**
+     * The area to bin, including the minimum and excluding the maximum.
+     */
+    public record Viewport(double minX, double minY, double maxX,
+            double maxY) {
+    }
+
+    /**
+     * Point counts per cell, row by row from the minimum y.
+     */
+    public record Grid(Viewport viewport, int columns, int rows,
+            long[] counts, long points, long max, long durationNanos) {
+
+        /**
+         * Returns the count of the given cell.
+         */
+        public long count(int column, int row) {
+            return counts[row * columns + column];
+        }
+    }
+
+    /**
+     * Bins the points of the source that fall inside the viewport.
+     */
+    public static Grid bin(PointSource source, Viewport viewport,
+            int columns, int rows) {
+        long start = System.nanoTime();
+        long[] counts = ForkJoinPool.commonPool().invoke(new BinTask(source,
+                viewport, columns, rows, 0, source.chunkCount()));
+        long points = 0;
+        long max = 0;
+        for (long count : counts) {
+            points += count;
+            max = Math.max(max, count);
+        }
+        return new Grid(viewport, columns, rows, counts, points, max,
+                System.nanoTime() - start);
+    }
+
+    private static final class BinTask extends RecursiveTask<long[]> {
+
+        private final PointSource source;
+        private final Viewport viewport;
+        private final int columns;
+        private final int rows;
+        private final int fromChunk;
+        private final int toChunk;
+
+        BinTask(PointSource source, Viewport viewport, int columns, int rows,
+                int fromChunk, int toChunk) {
+            this.source = source;
+            this.viewport = viewport;
+            this.columns = columns;
+            this.rows = rows;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                BinTask right = new BinTask(source, viewport, columns, rows,
+                        middle, toChunk);
+                right.fork();
+                long[] counts = new BinTask(source, viewport, columns, rows,
+                        fromChunk, middle).compute();
+                long[] rightCounts = right.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += rightCounts[i];
+                }
+                return counts;
+            }
+            long[] counts = new long[columns * rows];
+            if (fromChunk == toChunk) {
+                return counts;
+            }
+            double minX = viewport.minX();
+            double minY = viewport.minY();
+            double maxX = viewport.maxX();
+            double maxY = viewport.maxY();
+            double scaleX = columns / (maxX - minX);
+            double scaleY = rows / (maxY - minY);
+            source.forEachInChunk(fromChunk, (x, y) -> {
+                if (x >= minX && x < maxX && y >= minY && y < maxY) {
+                    int column = Math.min(columns - 1,
+                            (int) ((x - minX) * scaleX));
+                    int row = Math.min(rows - 1, (int) ((y - minY) * scaleY));
+                    counts[row * columns + column]++;
+                }
+            });
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.stream.IntStream;
+
+/**
+ * Reduces evenly spaced series to a number of points a chart can draw,
+ * keeping their visual shape.
+ * <p>
+ * Both methods return the indexes of the points to keep, in ascending order,
+ * so the caller can map them to its own x values. Large ranges are split into
+ * chunks that are reduced in parallel on the common fork-join pool.
+ */
+public final class Downsampler {
+
+    // Below this many points per chunk, splitting costs more than it saves
+    private static final int MIN_CHUNK = 1 << 16;
+
+    private Downsampler() {
+    }
+
+    /**
+     * How a range is reduced.
+     */
+    public enum Method {
+        /**
+         * Largest-Triangle-Three-Buckets: keeps the one point per bucket that
+         * forms the largest triangle with its neighbours. Follows the shape
+         * of the line closely.
+         */
+        LTTB,
+        /**
+         * Keeps the lowest and highest point of each bucket, so no spike is
+         * ever lost.
+         */
+        MIN_MAX
+    }
+
+    /**
+     * Reduces the given range to at most about the given number of points.
+     *
+     * @param values
+     *            the series, one value per evenly spaced x
+     * @param from
+     *            the first index of the range, inclusive
+     * @param to
+     *            the last index of the range, exclusive
+     * @param threshold
+     *            the number of points to keep, at least 3
+     * @return the indexes of the kept points in ascending order
+     */
+    public static int[] downsample(Method method, double[] values, int from,
+            int to, int threshold) {
+        return switch (method) {
+        case LTTB -> lttb(values, from, to, threshold);
+        case MIN_MAX -> minMax(values, from, to, threshold);
+        };
+    }
+
+    /**
+     * Reduces the given range with Largest-Triangle-Three-Buckets. The first
+     * and last point of every chunk are always kept.
+     */
+    public static int[] lttb(double[] values, int from, int to,
+            int threshold) {
+        int length = to - from;
+        if (threshold < 3 || length <= threshold) {
+            return IntStream.range(from, to).toArray();
+        }
+        int chunks = Math.max(1, Math.min(length / MIN_CHUNK, Math.min(
+                threshold / 32,
+                Runtime.getRuntime().availableProcessors() * 4)));
+        int[][] parts = new int[chunks][];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int chunkFrom = from + (int) ((long) length * chunk / chunks);
+            int chunkTo = from + (int) ((long) length * (chunk + 1) / chunks);
+            int chunkThreshold = (int) ((long) threshold * (chunk + 1)
+                    / chunks - (long) threshold * chunk / chunks);
+            parts[chunk] = lttbChunk(values, chunkFrom, chunkTo,
+                    chunkThreshold);
+        });
+        return concat(parts);
+    }
+
+    private static int[] lttbChunk(double[] values, int from, int to,
+            int threshold) {
+        int length = to - from;
+        if (length <= threshold) {
+            return IntStream.range(from, to).toArray();
+        }
+        int[] kept = new int[threshold];
+        kept[0] = from;
+        // Everything except the first and last point is split into buckets
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = from;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = from + 1 + (int) (bucket * bucketSize);
+            int end = from + 1 + (int) ((bucket + 1) * bucketSize);
+
+            // The third corner is the average of the next bucket
+            int nextStart = end;
+            int nextEnd = Math.min(to,
+                    from + 1 + (int) ((bucket + 2) * bucketSize));
+            double averageX;
+            double averageY;
+            if (bucket == threshold - 3) {
+                averageX = to - 1;
+                averageY = values[to - 1];
+            } else {
+                double sum = 0;
+                for (int i = nextStart; i < nextEnd; i++) {
+                    sum += values[i];
+                }
+                averageX = (nextStart + nextEnd - 1) / 2.0;
+                averageY = sum / (nextEnd - nextStart);
+            }
+
+            double previousY = values[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX)
+                        * (values[i] - previousY)
+                        - (previous - i) * (averageY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = to - 1;
+        return kept;
+    }
+
+    /**
+     * Reduces the given range by keeping the lowest and the highest point of
+     * each of {@code threshold / 2} buckets.
+     */
+    public static int[] minMax(double[] values, int from, int to,
+            int threshold) {
+        int length = to - from;
+        if (threshold < 2 || length <= threshold) {
+            return IntStream.range(from, to).toArray();
+        }
+        int buckets = threshold / 2;
+        int[] kept = new int[buckets * 2];
+        IntStream range = IntStream.range(0, buckets);
+        if (length >= MIN_CHUNK) {
+            range = range.parallel();
+        }
+        range.forEach(bucket -> {
+            int start = from + (int) ((long) length * bucket / buckets);
+            int end = from + (int) ((long) length * (bucket + 1) / buckets);
+            int min = start;
+            int max = start;
+            for (int i = start + 1; i < end; i++) {
+                double value = values[i];
+                if (value < values[min]) {
+                    min = i;
+                } else if (value > values[max]) {
+                    max = i;
+                }
+            }
+            if (min == max) {
+                // A flat bucket, whose ends are kept so no index repeats
+                max = end - 1;
+            }
+            kept[bucket * 2] = Math.min(min, max);
+            kept[bucket * 2 + 1] = Math.max(min, max);
+        });
+        return kept;
+    }
+
+    private static int[] concat(int[][] parts) {
+        int size = 0;
+        for (int[] part : parts) {
+            size += part.length;
+        }
+        int[] result = new int[size];
+        int offset = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
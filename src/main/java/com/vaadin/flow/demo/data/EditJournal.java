@@ -0,0 +1,262 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bounded undo/redo log of cell edits.
+ * <p>
+ * Each edit is stored as a row id, a column index and the old and new values,
+ * in parallel arrays used as a ring buffer. Integer, long, double and boolean
+ * values are stored as raw bits, so only other values such as strings keep an
+ * object reference. When the journal is full, the oldest edit is dropped, so
+ * memory stays fixed no matter how long a session edits.
+ * <p>
+ * Edits recorded between {@link #beginGroup()} and {@link #endGroup()} are
+ * undone and redone as one step. A group larger than the capacity can only be
+ * partly undone.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class EditJournal {
+
+    private static final byte REFERENCE = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte TYPE_MASK = 0x7;
+    // Set on entries that belong to the same step as the entry before
+    private static final byte CONTINUES_GROUP = 0x8;
+
+    private final int capacity;
+    private final int[] rowIds;
+    private final byte[] columns;
+    private final byte[] flags;
+    private final long[] oldBits;
+    private final long[] newBits;
+    private final Object[] oldReferences;
+    private final Object[] newReferences;
+
+    private int start;
+    private int size;
+    private int applied;
+    private int groupDepth;
+    private boolean groupStarted;
+
+    /**
+     * Creates a journal keeping at most the given number of edits.
+     */
+    public EditJournal(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        rowIds = new int[capacity];
+        columns = new byte[capacity];
+        flags = new byte[capacity];
+        oldBits = new long[capacity];
+        newBits = new long[capacity];
+        oldReferences = new Object[capacity];
+        newReferences = new Object[capacity];
+    }
+
+    /**
+     * Records an edit, discarding any edits that could have been redone.
+     *
+     * @param rowId
+     *            the id of the edited row
+     * @param column
+     *            the index of the edited column, at most 127
+     * @param oldValue
+     *            the value before the edit
+     * @param newValue
+     *            the value after the edit
+     */
+    public void record(int rowId, int column, Object oldValue,
+            Object newValue) {
+        if (column < 0 || column > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Column index out of range: " + column);
+        }
+        size = applied;
+        if (size == capacity) {
+            start = (start + 1) % capacity;
+            size--;
+            applied--;
+        }
+        int slot = slot(size);
+        byte type = typeOf(oldValue, newValue);
+        boolean continues = groupDepth > 0 && !groupStarted && size > 0;
+        groupStarted = false;
+
+        rowIds[slot] = rowId;
+        columns[slot] = (byte) column;
+        flags[slot] = (byte) (continues ? type | CONTINUES_GROUP : type);
+        if (type == REFERENCE) {
+            oldReferences[slot] = oldValue;
+            newReferences[slot] = newValue;
+        } else {
+            oldReferences[slot] = null;
+            newReferences[slot] = null;
+            oldBits[slot] = toBits(type, oldValue);
+            newBits[slot] = toBits(type, newValue);
+        }
+        size++;
+        applied++;
+    }
+
+    /**
+     * Starts a group of edits undone and redone as one step. Groups may be
+     * nested; only the outermost group counts.
+     */
+    public void beginGroup() {
+        if (groupDepth++ == 0) {
+            groupStarted = true;
+        }
+    }
+
+    /**
+     * Ends a group started with {@link #beginGroup()}.
+     */
+    public void endGroup() {
+        if (groupDepth == 0) {
+            throw new IllegalStateException("No group to end");
+        }
+        groupDepth--;
+    }
+
+    /**
+     * Returns whether there is an edit to undo.
+     */
+    public boolean canUndo() {
+        return applied > 0;
+    }
+
+    /**
+     * Returns whether there is an undone edit to redo.
+     */
+    public boolean canRedo() {
+        return applied < size;
+    }
+
+    /**
+     * Steps back over the last edit or group, returning the old values to
+     * restore, in the order they should be applied.
+     */
+    public List<Edit> undo() {
+        List<Edit> edits = new ArrayList<>(1);
+        while (applied > 0) {
+            int slot = slot(--applied);
+            edits.add(new Edit(rowIds[slot], columns[slot],
+                    value(slot, oldBits, oldReferences)));
+            if ((flags[slot] & CONTINUES_GROUP) == 0) {
+                break;
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * Steps forward over the next undone edit or group, returning the new
+     * values to restore, in the order they should be applied.
+     */
+    public List<Edit> redo() {
+        List<Edit> edits = new ArrayList<>(1);
+        while (applied < size) {
+            int slot = slot(applied++);
+            edits.add(new Edit(rowIds[slot], columns[slot],
+                    value(slot, newBits, newReferences)));
+            if (applied == size
+                    || (flags[slot(applied)] & CONTINUES_GROUP) == 0) {
+                break;
+            }
+        }
+        return edits;
+    }
+
+    /**
+     * Returns the number of edits that can be undone.
+     */
+    public int getUndoCount() {
+        return applied;
+    }
+
+    /**
+     * Returns the number of edits that can be redone.
+     */
+    public int getRedoCount() {
+        return size - applied;
+    }
+
+    /**
+     * Returns the maximum number of edits kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int slot(int index) {
+        return (start + index) % capacity;
+    }
+
+    private static byte typeOf(Object oldValue, Object newValue) {
+        byte type = typeOf(oldValue);
+        return type == typeOf(newValue) ? type : REFERENCE;
+    }
+
+    private static byte typeOf(Object value) {
+        if (value instanceof Integer) {
+            return INTEGER;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        return REFERENCE;
+    }
+
+    private static long toBits(byte type, Object value) {
+        return switch (type) {
+            case INTEGER -> (Integer) value;
+            case LONG -> (Long) value;
+            case DOUBLE -> Double.doubleToRawLongBits((Double) value);
+            case BOOLEAN -> (Boolean) value ? 1 : 0;
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    private Object value(int slot, long[] bits, Object[] references) {
+        return switch ((byte) (flags[slot] & TYPE_MASK)) {
+            case INTEGER -> (int) bits[slot];
+            case LONG -> bits[slot];
+            case DOUBLE -> Double.longBitsToDouble(bits[slot]);
+            case BOOLEAN -> bits[slot] != 0;
+            default -> references[slot];
+        };
+    }
+
+    /**
+     * One cell value to restore.
+     */
+    public record Edit(int rowId, int column, Object value) {
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+
+/**
+ * A size-bounded LRU cache of filter results over immutable option lists,
+ * shared by all sessions in the JVM.
+ * <p>
+ * Entries are keyed by a dataset id, the filter string and the requested page,
+ * so a popular prefix is filtered once per JVM rather than once per keystroke
+ * per user. Only use it for datasets that never change: entries are never
+ * invalidated, only evicted.
+ * <p>
+ * Loaders run outside the cache lock, so two sessions missing the same key at
+ * the same moment may both compute it; the second result simply replaces the
+ * first.
+ */
+public final class FilterResultCache {
+
+    private static final FilterResultCache SHARED = new FilterResultCache(
+            10_000);
+
+    private final int maxEntries;
+    private final Map<Key, Object> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most the given number of pages and counts.
+     */
+    public FilterResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > FilterResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by all sessions.
+     */
+    public static FilterResultCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a fetch callback that serves pages of the given dataset from the
+     * cache, loading missing pages with the given function.
+     */
+    public <T> CallbackDataProvider.FetchCallback<T, String> fetchCallback(
+            String datasetId, PageLoader<T> loader) {
+        return query -> {
+            String filter = query.getFilter().orElse("");
+            int offset = query.getOffset();
+            int limit = query.getLimit();
+            List<T> page = get(new Key(datasetId, filter, offset, limit),
+                    () -> loader.load(filter, offset, limit).toList());
+            return page.stream();
+        };
+    }
+
+    /**
+     * Returns a count callback that serves match counts of the given dataset
+     * from the cache, computing missing counts with the given function.
+     */
+    public <T> CallbackDataProvider.CountCallback<T, String> countCallback(
+            String datasetId, ToIntFunction<String> counter) {
+        return query -> {
+            String filter = query.getFilter().orElse("");
+            return get(new Key(datasetId, filter, -1, -1),
+                    () -> counter.applyAsInt(filter));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V get(Key key, Supplier<V> loader) {
+        Object value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return (V) value;
+        }
+        misses.increment();
+        V loaded = loader.get();
+        synchronized (entries) {
+            entries.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     */
+    public Statistics getStatistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Loads one page of a filtered dataset.
+     *
+     * @param <T> the item type
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        Stream<T> load(String filter, int offset, int limit);
+    }
+
+    /**
+     * Cache statistics at one point in time.
+     */
+    public record Statistics(long hits, long misses, long evictions,
+            int size) {
+
+        /**
+         * Returns the share of lookups served from the cache, between 0 and 1.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Key(String datasetId, String filter, int offset,
+            int limit) {
+    }
+}
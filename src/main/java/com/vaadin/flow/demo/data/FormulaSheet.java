@@ -0,0 +1,297 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Spreadsheet-style computed columns over a list of rows, with incremental
+ * recalculation.
+ * <p>
+ * Input columns read numbers from the row objects. Formula columns compute a
+ * number from other columns of the same row, and sums total a column per
+ * group. A formula may only depend on columns defined before it, so the
+ * definition order is a topological order of the dependency graph and cycles
+ * cannot occur.
+ * <p>
+ * After a row changes, {@link #update(Object)} compares its inputs with the
+ * stored values and recalculates only the formulas that depend on a changed
+ * input, directly or through other formulas. Sums are adjusted by the
+ * difference instead of being recomputed over all rows.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @param <T> the row type
+ */
+public final class FormulaSheet<T> {
+
+    private final List<String> columns = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final List<ToDoubleFunction<T>> inputs = new ArrayList<>();
+    private final List<Formula> formulas = new ArrayList<>();
+    private final List<int[]> formulaDependencies = new ArrayList<>();
+    private final Map<String, Sum<T>> sums = new LinkedHashMap<>();
+
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private double[][] values = new double[0][];
+    private int[][] affected;
+
+    /**
+     * Adds an input column read from the rows.
+     */
+    public FormulaSheet<T> input(String column, ToDoubleFunction<T> getter) {
+        if (!formulas.isEmpty()) {
+            throw new IllegalStateException(
+                    "Inputs must be defined before formulas");
+        }
+        addColumn(column);
+        inputs.add(getter);
+        return this;
+    }
+
+    /**
+     * Adds a formula column computed from the given, previously defined,
+     * columns of the same row. The formula must only read the columns it
+     * declares.
+     */
+    public FormulaSheet<T> formula(String column, List<String> dependsOn,
+            Formula formula) {
+        int[] dependencies = new int[dependsOn.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = indexOf(dependsOn.get(i));
+        }
+        addColumn(column);
+        formulas.add(formula);
+        formulaDependencies.add(dependencies);
+        return this;
+    }
+
+    /**
+     * Adds a sum of the given column over all rows, grouped by the given key.
+     */
+    public FormulaSheet<T> sum(String name, String column,
+            Function<T, String> groupBy) {
+        sums.put(name, new Sum<>(indexOf(column), groupBy));
+        return this;
+    }
+
+    private void addColumn(String column) {
+        if (columnIndex.putIfAbsent(column, columns.size()) != null) {
+            throw new IllegalArgumentException(
+                    "Duplicate column: " + column);
+        }
+        columns.add(column);
+    }
+
+    private int indexOf(String column) {
+        Integer index = columnIndex.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return index;
+    }
+
+    /**
+     * Computes every column and sum for the given rows, replacing any rows
+     * loaded before.
+     */
+    public void load(Collection<T> rows) {
+        affected = computeAffected();
+        positions.clear();
+        values = new double[columns.size()][rows.size()];
+        for (Sum<T> sum : sums.values()) {
+            sum.totals.clear();
+            sum.groups = new String[rows.size()];
+        }
+
+        int position = 0;
+        for (T row : rows) {
+            positions.put(row, position);
+            for (int input = 0; input < inputs.size(); input++) {
+                values[input][position] = inputs.get(input)
+                        .applyAsDouble(row);
+            }
+            for (int formula = 0; formula < formulas.size(); formula++) {
+                compute(inputs.size() + formula, position);
+            }
+            for (Sum<T> sum : sums.values()) {
+                String group = sum.groupBy.apply(row);
+                sum.groups[position] = group;
+                sum.totals.merge(group, values[sum.column][position],
+                        Double::sum);
+            }
+            position++;
+        }
+    }
+
+    /**
+     * For every column, lists the formulas that depend on it directly or
+     * transitively, in definition order.
+     */
+    private int[][] computeAffected() {
+        int[][] result = new int[columns.size()][];
+        for (int column = 0; column < columns.size(); column++) {
+            boolean[] dirty = new boolean[columns.size()];
+            dirty[column] = true;
+            List<Integer> list = new ArrayList<>();
+            for (int formula = 0; formula < formulas.size(); formula++) {
+                for (int dependency : formulaDependencies.get(formula)) {
+                    if (dirty[dependency]) {
+                        dirty[inputs.size() + formula] = true;
+                        list.add(inputs.size() + formula);
+                        break;
+                    }
+                }
+            }
+            result[column] = list.stream().mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return result;
+    }
+
+    private void compute(int column, int position) {
+        int formula = column - inputs.size();
+        values[column][position] = formulas.get(formula)
+                .compute(name -> values[indexOf(name)][position]);
+    }
+
+    /**
+     * Returns the current value of a column for the given row.
+     */
+    public double value(T row, String column) {
+        return values[indexOf(column)][position(row)];
+    }
+
+    /**
+     * Returns the current total of a sum for one group.
+     */
+    public double total(String sum, String group) {
+        return sums.get(sum).totals.getOrDefault(group, 0.0);
+    }
+
+    /**
+     * Returns the groups of a sum, in first-seen order.
+     */
+    public Set<String> groups(String sum) {
+        return sums.get(sum).totals.keySet();
+    }
+
+    /**
+     * Recalculates everything that depends on the inputs of the given row that
+     * changed since it was last loaded or updated.
+     */
+    public Update update(T row) {
+        int position = position(row);
+        boolean[] dirty = new boolean[columns.size()];
+        double[] previous = new double[columns.size()];
+        for (int input = 0; input < inputs.size(); input++) {
+            double value = inputs.get(input).applyAsDouble(row);
+            if (Double.compare(value, values[input][position]) != 0) {
+                previous[input] = values[input][position];
+                values[input][position] = value;
+                dirty[input] = true;
+                for (int column : affected[input]) {
+                    dirty[column] = true;
+                }
+            }
+        }
+
+        int recalculated = 0;
+        for (int column = inputs.size(); column < columns.size(); column++) {
+            if (dirty[column]) {
+                previous[column] = values[column][position];
+                compute(column, position);
+                recalculated++;
+            }
+        }
+
+        Map<String, Set<String>> changedGroups = new LinkedHashMap<>();
+        for (Map.Entry<String, Sum<T>> entry : sums.entrySet()) {
+            Sum<T> sum = entry.getValue();
+            String oldGroup = sum.groups[position];
+            String newGroup = sum.groupBy.apply(row);
+            double newValue = values[sum.column][position];
+            if (!oldGroup.equals(newGroup)) {
+                double oldValue = dirty[sum.column] ? previous[sum.column]
+                        : newValue;
+                sum.totals.merge(oldGroup, -oldValue, Double::sum);
+                sum.totals.merge(newGroup, newValue, Double::sum);
+                sum.groups[position] = newGroup;
+                changedGroups.put(entry.getKey(),
+                        new LinkedHashSet<>(List.of(oldGroup, newGroup)));
+            } else if (dirty[sum.column]) {
+                sum.totals.merge(newGroup, newValue - previous[sum.column],
+                        Double::sum);
+                changedGroups.put(entry.getKey(), Set.of(newGroup));
+            }
+        }
+        return new Update(recalculated, changedGroups);
+    }
+
+    private int position(T row) {
+        Integer position = positions.get(row);
+        if (position == null) {
+            throw new IllegalArgumentException("Row is not loaded: " + row);
+        }
+        return position;
+    }
+
+    /**
+     * Computes a formula column from other columns of the same row.
+     */
+    @FunctionalInterface
+    public interface Formula {
+        double compute(Values row);
+    }
+
+    /**
+     * Reads the values of other columns of the row being computed.
+     */
+    @FunctionalInterface
+    public interface Values {
+        double get(String column);
+    }
+
+    /**
+     * The outcome of {@link #update(Object)}: how many formula cells were
+     * recalculated, and which groups of which sums changed.
+     */
+    public record Update(int recalculatedCells,
+            Map<String, Set<String>> changedGroups) {
+    }
+
+    private static final class Sum<T> {
+        private final int column;
+        private final Function<T, String> groupBy;
+        private final Map<String, Double> totals = new LinkedHashMap<>();
+        private String[] groups = new String[0];
+
+        private Sum(int column, Function<T, String> groupBy) {
+            this.column = column;
+            this.groupBy = groupBy;
+        }
+    }
+}
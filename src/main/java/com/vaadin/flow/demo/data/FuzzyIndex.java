@@ -0,0 +1,720 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, typo-tolerant search index over a list of strings.
+ * <p>
+ * A query matches an entry when it occurs somewhere in the entry with at most
+ * a few edits (insertions, deletions, substitutions or swaps of adjacent
+ * characters), ignoring case. Results
+ * are ranked by edit distance, then by whether the entry starts with the
+ * query, then by length. Exact substring matches have distance zero, so the
+ * results are always a superset of a plain contains-filter.
+ * <p>
+ * Large lists are pre-filtered with trigram and bigram posting lists. One
+ * edit changes at most four of a query's trigrams (a swap of adjacent
+ * characters touches four) or three of its bigrams, so an entry can only be
+ * within {@code k} edits of the query if it shares at least {@code t - 4k}
+ * of the query's {@code t} distinct trigrams, or {@code b - 3k} of its
+ * {@code b} distinct bigrams. The filter never drops a match, but it limits
+ * the edits a large list tolerates: queries of up to four characters must
+ * match exactly, five to seven characters tolerate one edit, and two edits
+ * need at least eight. Small lists are verified directly, so there even short
+ * queries get typo tolerance.
+ * <p>
+ * The filter itself is tighter: it counts grams with the bound of the other
+ * edits, {@code t - 3k} or {@code b - 2k}, and finds the matches with a swap
+ * from the pieces of the swapped query. When the query has rare pieces, it
+ * only looks at the entries containing one of them instead.
+ * <p>
+ * Instances are thread-safe and meant to be shared between sessions.
+ */
+public final class FuzzyIndex {
+
+    /** Default number of ranked results kept for a query. */
+    public static final int DEFAULT_MAX_RESULTS = 200;
+
+    private static final int SCAN_THRESHOLD = 10_000;
+
+    // The most trigrams and bigrams a single edit can change
+    private static final int TRIGRAM_EDIT = 4;
+    private static final int BIGRAM_EDIT = 3;
+    private static final long BIGRAM_MARKER = 1L << 48;
+
+    private static final int[] NONE = new int[0];
+    private static final int RECENT_QUERIES = 64;
+
+    private final String[] entries;
+    private final String[] folded;
+    private final Map<Long, int[]> postings;
+    // Gram counts per entry, left all zero after each query, so that
+    // queries on the same thread do not allocate them again
+    private final ThreadLocal<short[]> counters;
+    // The ranked results of the latest queries, so that a lazy component
+    // asking for the count and then the pages of a filter ranks only once
+    private final Map<String, List<String>> recent = new LinkedHashMap<>(16,
+            0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<String, List<String>> eldest) {
+            return size() > RECENT_QUERIES;
+        }
+    };
+
+    private FuzzyIndex(String[] entries, String[] folded,
+            Map<Long, int[]> postings) {
+        this.entries = entries;
+        this.folded = folded;
+        this.postings = postings;
+        this.counters = ThreadLocal
+                .withInitial(() -> new short[entries.length]);
+    }
+
+    /**
+     * Builds an index of the given values.
+     */
+    public static FuzzyIndex of(Collection<String> values) {
+        String[] entries = values.toArray(String[]::new);
+        String[] folded = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            folded[i] = fold(entries[i]);
+        }
+        if (entries.length <= SCAN_THRESHOLD) {
+            return new FuzzyIndex(entries, folded, Map.of());
+        }
+
+        // Two passes: size every posting list, then fill them, in id order
+        // so that every list is sorted
+        Map<Long, int[]> sizes = new HashMap<>();
+        for (String entry : folded) {
+            for (long gram : distinctGrams(entry)) {
+                sizes.computeIfAbsent(gram, key -> new int[1])[0]++;
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(sizes.size() * 2);
+        sizes.forEach((gram, size) -> postings.put(gram, new int[size[0]]));
+        Map<Long, int[]> fill = new HashMap<>(sizes.size() * 2);
+        for (int id = 0; id < folded.length; id++) {
+            for (long gram : distinctGrams(folded[id])) {
+                int[] position = fill.computeIfAbsent(gram,
+                        key -> new int[1]);
+                postings.get(gram)[position[0]++] = id;
+            }
+        }
+        return new FuzzyIndex(entries, folded, postings);
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the number of edits tolerated for the given query.
+     */
+    public int maxEdits(String query) {
+        String q = fold(query);
+        int length = q.length();
+        int edits = length <= 2 ? 0 : length <= 5 ? 1 : 2;
+        if (!postings.isEmpty()) {
+            // Only as many edits as the gram filter can tolerate without
+            // dropping a match
+            edits = Math.min(edits,
+                    Math.max(filterEdits(trigrams(q).length, TRIGRAM_EDIT),
+                            filterEdits(bigrams(q).length, BIGRAM_EDIT)));
+        }
+        return edits;
+    }
+
+    /**
+     * Returns the entries matching the given query, best match first.
+     */
+    public List<String> search(String query, int maxResults) {
+        String q = fold(query);
+        if (q.isEmpty()) {
+            return Arrays.asList(entries)
+                    .subList(0, Math.min(maxResults, entries.length));
+        }
+        int maxEdits = maxEdits(query);
+        Pattern pattern = new Pattern(q);
+        if (maxEdits > 0 && !postings.isEmpty()) {
+            // Exact matches rank first, so when they fill the page there is
+            // no need to look for fuzzy ones with a weaker filter
+            Ranking exact = match(pattern, 0, maxResults);
+            if (exact.found() >= maxResults) {
+                return exact.results();
+            }
+        }
+        return match(pattern, maxEdits, maxResults).results();
+    }
+
+    private Ranking match(Pattern pattern, int maxEdits, int maxResults) {
+        String q = pattern.query;
+        boolean indexed = !postings.isEmpty();
+        Ranking ranking = new Ranking(maxResults);
+        if (!indexed || q.length() < 2) {
+            for (int id = 0; id < folded.length; id++) {
+                ranking.add(id, key(id, pattern, maxEdits));
+                if (indexed && ranking.found() >= maxResults) {
+                    // Too short to rank in a large list, so stop scanning
+                    // once a page worth of exact matches is found
+                    break;
+                }
+            }
+            return ranking;
+        }
+        // An exact match contains every gram of the query, so the shortest
+        // posting list holds them all
+        int[] candidates = maxEdits > 0 ? candidates(q, maxEdits)
+                : rarest(q.length() < 3 ? bigrams(q) : trigrams(q));
+        for (int id : candidates) {
+            ranking.add(id, key(id, pattern, maxEdits));
+        }
+        return ranking;
+    }
+
+    /**
+     * Returns the ids of the entries that can be within the given number of
+     * edits of the query.
+     */
+    private int[] candidates(String q, int maxEdits) {
+        short[] counts = counters.get();
+        int[] touched = new int[64];
+        int touchedCount = 0;
+
+        // Edits other than swaps change one gram fewer, so the count filter
+        // leaves matches with a swap out, and they are looked up apart
+        int[][] lists = postingLists(trigrams(q));
+        int threshold = lists.length - (TRIGRAM_EDIT - 1) * maxEdits;
+        int[][] bigramLists = postingLists(bigrams(q));
+        int bigramThreshold = bigramLists.length
+                - (BIGRAM_EDIT - 1) * maxEdits;
+        // Filter on whichever gram size leaves less to walk
+        if (threshold < 1 || bigramThreshold >= 1
+                && walkSize(bigramLists, bigramThreshold) < walkSize(lists,
+                        threshold)) {
+            lists = bigramLists;
+            threshold = bigramThreshold;
+        }
+
+        List<int[]> pieces = pieces(q, maxEdits);
+        if (pieces != null
+                && 2 * size(pieces) < walkSize(lists, threshold)) {
+            // The pieces are rare enough that the entries containing one
+            // are fewer than the count filter would leave
+            for (int[] ids : pieces) {
+                for (int id : ids) {
+                    if (counts[id]++ == 0) {
+                        touched = append(touched, touchedCount++, id);
+                    }
+                }
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                counts[touched[t]] = 0;
+            }
+            return Arrays.copyOf(touched, touchedCount);
+        }
+        List<int[]> swaps = swapCandidates(q, maxEdits);
+
+        // An entry in at least threshold of the lists is in one of the
+        // shortest lists.length - threshold + 1, so only those are walked
+        int walked = lists.length - threshold + 1;
+        for (int i = 0; i < walked; i++) {
+            for (int id : lists[i]) {
+                if (counts[id]++ == 0) {
+                    touched = append(touched, touchedCount++, id);
+                }
+            }
+        }
+        for (int[] ids : swaps) {
+            for (int id : ids) {
+                if (counts[id] < threshold) {
+                    if (counts[id] == 0) {
+                        touched = append(touched, touchedCount++, id);
+                    }
+                    counts[id] = (short) threshold;
+                }
+            }
+        }
+        // The longer lists only add to the counts of the entries that can
+        // still reach the threshold
+        for (int i = walked; i < lists.length; i++) {
+            int remaining = lists.length - i;
+            int kept = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                if (counts[touched[t]] + remaining >= threshold) {
+                    touched[kept++] = touched[t];
+                } else {
+                    counts[touched[t]] = 0;
+                }
+            }
+            touchedCount = kept;
+            int[] ids = lists[i];
+            if ((long) touchedCount * (32
+                    - Integer.numberOfLeadingZeros(ids.length)) < ids.length) {
+                for (int t = 0; t < touchedCount; t++) {
+                    if (Arrays.binarySearch(ids, touched[t]) >= 0) {
+                        counts[touched[t]]++;
+                    }
+                }
+            } else {
+                for (int id : ids) {
+                    if (counts[id] > 0) {
+                        counts[id]++;
+                    }
+                }
+            }
+        }
+        int candidateCount = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            if (counts[touched[t]] >= threshold) {
+                touched[candidateCount++] = touched[t];
+            }
+            counts[touched[t]] = 0;
+        }
+        return Arrays.copyOf(touched, candidateCount);
+    }
+
+    /**
+     * Returns posting lists that together hold every entry matching the
+     * query with at least one swap of adjacent characters.
+     * <p>
+     * Such an entry is within one edit fewer of the query with that swap
+     * applied, none of them inside the swapped pair, so it contains one of
+     * the pieces of the swapped query.
+     */
+    private List<int[]> swapCandidates(String q, int maxEdits) {
+        List<int[]> candidates = new ArrayList<>();
+        for (int i = 0; i + 1 < q.length(); i++) {
+            char[] chars = q.toCharArray();
+            chars[i] = q.charAt(i + 1);
+            chars[i + 1] = q.charAt(i);
+            List<int[]> pieces = pieces(new String(chars), maxEdits - 1);
+            if (pieces == null) {
+                // Too short to cut, which the edit limits never allow
+                throw new IllegalStateException(
+                        "No pieces for " + maxEdits + " edits of " + q);
+            }
+            candidates.addAll(pieces);
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the posting lists of the pieces left when the given number of
+     * single characters are cut out of the text, cut where the lists are
+     * shortest, or null if the text is too short for pieces of at least two
+     * characters.
+     * <p>
+     * An edit, a swap included, breaks at most one piece, so an entry within
+     * that many edits of the text contains one of the pieces exactly, and
+     * with it the rarest gram of that piece.
+     */
+    private List<int[]> pieces(String text, int cuts) {
+        int[][] trigramLists = new int[Math.max(0, text.length() - 2)][];
+        for (int i = 0; i < trigramLists.length; i++) {
+            trigramLists[i] = postings.getOrDefault(trigram(text, i), NONE);
+        }
+        int[][] bigramLists = new int[Math.max(0, text.length() - 1)][];
+        for (int i = 0; i < bigramLists.length; i++) {
+            bigramLists[i] = postings.getOrDefault(bigram(text, i), NONE);
+        }
+        return pieces(trigramLists, bigramLists, 0, text.length(), cuts);
+    }
+
+    private static List<int[]> pieces(int[][] trigramLists,
+            int[][] bigramLists, int start, int end, int cuts) {
+        if (cuts == 0) {
+            return end - start < 2 ? null
+                    : new ArrayList<>(List.of(rarest(trigramLists,
+                            bigramLists, start, end)));
+        }
+        List<int[]> best = null;
+        for (int cut = start + 2; cut < end; cut++) {
+            List<int[]> rest = pieces(trigramLists, bigramLists, cut + 1, end,
+                    cuts - 1);
+            if (rest == null) {
+                break;
+            }
+            rest.add(rarest(trigramLists, bigramLists, start, cut));
+            if (best == null || size(rest) < size(best)) {
+                best = rest;
+            }
+        }
+        return best;
+    }
+
+    private static int[] rarest(int[][] trigramLists, int[][] bigramLists,
+            int start, int end) {
+        if (end - start == 2) {
+            return bigramLists[start];
+        }
+        int[] rarest = trigramLists[start];
+        for (int i = start + 1; i + 3 <= end; i++) {
+            if (trigramLists[i].length < rarest.length) {
+                rarest = trigramLists[i];
+            }
+        }
+        return rarest;
+    }
+
+    private static long size(List<int[]> lists) {
+        long size = 0;
+        for (int[] ids : lists) {
+            size += ids.length;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the posting lists of the given grams, shortest first.
+     */
+    private int[][] postingLists(long[] grams) {
+        int[][] lists = new int[grams.length][];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.getOrDefault(grams[i], NONE);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(ids -> ids.length));
+        return lists;
+    }
+
+    /**
+     * Returns the shortest posting list of the given grams, or none if one
+     * of them occurs nowhere.
+     */
+    private int[] rarest(long[] grams) {
+        int[][] lists = postingLists(grams);
+        return lists.length == 0 ? NONE : lists[0];
+    }
+
+    private static long walkSize(int[][] lists, int threshold) {
+        long size = 0;
+        for (int i = 0; i <= lists.length - threshold; i++) {
+            size += lists[i].length;
+        }
+        return size;
+    }
+
+    private static int[] append(int[] ids, int size, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = id;
+        return ids;
+    }
+
+    /**
+     * Returns one page of the ranked matches for the given query, using
+     * {@link #DEFAULT_MAX_RESULTS}. The ranking of recent queries is reused.
+     */
+    public Stream<String> fetch(String query, int offset, int limit) {
+        return recentSearch(query).stream().skip(offset).limit(limit);
+    }
+
+    /**
+     * Returns the number of ranked matches for the given query, using
+     * {@link #DEFAULT_MAX_RESULTS}. The ranking of recent queries is reused.
+     */
+    public int count(String query) {
+        return recentSearch(query).size();
+    }
+
+    private List<String> recentSearch(String query) {
+        String q = fold(query);
+        synchronized (recent) {
+            List<String> results = recent.get(q);
+            if (results != null) {
+                return results;
+            }
+        }
+        List<String> results = search(query, DEFAULT_MAX_RESULTS);
+        synchronized (recent) {
+            recent.put(q, results);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the sort key of the entry if it matches, or -1 if it does not:
+     * the distance, then whether it starts with the query, then its length.
+     */
+    private long key(int id, Pattern pattern, int maxEdits) {
+        int distance = pattern.distance(folded[id], maxEdits);
+        if (distance > maxEdits) {
+            return -1;
+        }
+        boolean prefix = folded[id].startsWith(pattern.query);
+        return (long) distance << 33 | (prefix ? 0 : 1L << 32)
+                | entries[id].length();
+    }
+
+    /**
+     * The best matches found so far, in a heap bounded to the number of
+     * results with the worst of them on top, so that ranking costs little
+     * more than finding the matches. Entries with the same key are ranked
+     * alphabetically.
+     */
+    private final class Ranking {
+
+        private final int capacity;
+        private long[] keys = new long[16];
+        private int[] ids = new int[16];
+        private int size;
+        private int found;
+
+        Ranking(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Returns the number of matches added, including the ones that did
+         * not make it into the results.
+         */
+        int found() {
+            return found;
+        }
+
+        void add(int id, long key) {
+            if (key < 0) {
+                return;
+            }
+            found++;
+            if (size < capacity) {
+                if (size == keys.length) {
+                    int length = (int) Math.min(capacity, 2L * size);
+                    keys = Arrays.copyOf(keys, length);
+                    ids = Arrays.copyOf(ids, length);
+                }
+                keys[size] = key;
+                ids[size] = id;
+                for (int i = size++; i > 0 && compare(i, (i - 1) / 2) > 0;
+                        i = (i - 1) / 2) {
+                    swap(i, (i - 1) / 2);
+                }
+            } else if (size > 0 && compare(key, id, keys[0], ids[0]) < 0) {
+                keys[0] = key;
+                ids[0] = id;
+                siftDown(0, size);
+            }
+        }
+
+        /**
+         * Returns the entries in the heap, best first.
+         */
+        List<String> results() {
+            // Heap sort: move the worst to the end until the heap is empty
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            String[] results = new String[size];
+            for (int i = 0; i < size; i++) {
+                results[i] = entries[ids[i]];
+            }
+            return List.of(results);
+        }
+
+        private void siftDown(int i, int end) {
+            for (int child = 2 * i + 1; child < end; child = 2 * i + 1) {
+                if (child + 1 < end && compare(child + 1, child) > 0) {
+                    child++;
+                }
+                if (compare(child, i) <= 0) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private int compare(int i, int j) {
+            return compare(keys[i], ids[i], keys[j], ids[j]);
+        }
+
+        private int compare(long key, int id, long otherKey, int otherId) {
+            int result = Long.compare(key, otherKey);
+            return result != 0 ? result
+                    : entries[id].compareTo(entries[otherId]);
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+    }
+
+    /**
+     * A folded query with the bit masks needed to compare it against many
+     * entries.
+     * <p>
+     * Distances are computed with Myers' bit-parallel algorithm, extended
+     * with Hyyrö's transposition term, so one text character costs a handful
+     * of word operations regardless of the query length. An adjacent
+     * transposition counts as a single edit.
+     */
+    static final class Pattern {
+
+        private final String query;
+        private final long[] asciiMasks = new long[128];
+        private final char[] otherChars;
+        private final long[] otherMasks;
+
+        Pattern(String query) {
+            this.query = query.length() > Long.SIZE
+                    ? query.substring(0, Long.SIZE)
+                    : query;
+            StringBuilder others = new StringBuilder();
+            for (int i = 0; i < this.query.length(); i++) {
+                char c = this.query.charAt(i);
+                if (c < 128) {
+                    asciiMasks[c] |= 1L << i;
+                } else if (others.indexOf(String.valueOf(c)) < 0) {
+                    others.append(c);
+                }
+            }
+            otherChars = others.toString().toCharArray();
+            otherMasks = new long[otherChars.length];
+            for (int i = 0; i < this.query.length(); i++) {
+                int slot = others.indexOf(
+                        String.valueOf(this.query.charAt(i)));
+                if (slot >= 0) {
+                    otherMasks[slot] |= 1L << i;
+                }
+            }
+        }
+
+        private long mask(char c) {
+            if (c < 128) {
+                return asciiMasks[c];
+            }
+            for (int i = 0; i < otherChars.length; i++) {
+                if (otherChars[i] == c) {
+                    return otherMasks[i];
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the smallest edit distance between the query and any
+         * substring of the text, or {@code maxEdits + 1} if it exceeds
+         * {@code maxEdits}.
+         */
+        int distance(String text, int maxEdits) {
+            if (maxEdits == 0) {
+                return text.contains(query) ? 0 : 1;
+            }
+            int m = query.length();
+            long high = 1L << (m - 1);
+            long pv = -1L;
+            long mv = 0;
+            long d0 = 0;
+            long previousEq = 0;
+            int score = m;
+            int best = m;
+            for (int j = 0; j < text.length() && best > 0; j++) {
+                long eq = mask(text.charAt(j));
+                long transposed = ((~d0 & eq) << 1) & previousEq;
+                d0 = (((eq & pv) + pv) ^ pv) | eq | mv | transposed;
+                long hp = mv | ~(d0 | pv);
+                long hn = pv & d0;
+                if ((hp & high) != 0) {
+                    score++;
+                } else if ((hn & high) != 0) {
+                    score--;
+                }
+                // No carry into the lowest bit: a match may start anywhere
+                hp <<= 1;
+                hn <<= 1;
+                pv = hn | ~(d0 | hp);
+                mv = hp & d0;
+                previousEq = eq;
+                best = Math.min(best, score);
+            }
+            return Math.min(best, maxEdits + 1);
+        }
+    }
+
+    /**
+     * Returns the largest number of edits that leaves at least one of the
+     * given number of distinct grams intact.
+     */
+    private static int filterEdits(int grams, int gramsPerEdit) {
+        return Math.max(0, (grams - 1) / gramsPerEdit);
+    }
+
+    private static long[] distinctGrams(String text) {
+        return LongStream.concat(Arrays.stream(trigrams(text)),
+                Arrays.stream(bigrams(text))).toArray();
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = trigram(text, i);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    private static long[] bigrams(String text) {
+        if (text.length() < 2) {
+            return new long[0];
+        }
+        long[] bigrams = new long[text.length() - 1];
+        for (int i = 0; i < bigrams.length; i++) {
+            bigrams[i] = bigram(text, i);
+        }
+        return Arrays.stream(bigrams).distinct().toArray();
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32)
+                | ((long) text.charAt(start + 1) << 16)
+                | text.charAt(start + 2);
+    }
+
+    private static long bigram(String text, int start) {
+        // The marker bit keeps bigram keys apart from trigram keys
+        return BIGRAM_MARKER | ((long) text.charAt(start) << 16)
+                | text.charAt(start + 1);
+    }
+
+    private static String fold(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * A live metric sampled by a single producer into a ring buffer and fanned
+ * out to any number of subscribers.
+ * <p>
+ * One scheduler thread takes a sample at a fixed interval and, at a slower
+ * fixed frame rate, hands each subscriber the samples it has not seen yet.
+ * The cost of sampling does not grow with the number of subscribers, and
+ * each subscriber gets at most one delivery per frame. A subscriber that is
+ * still busy with its previous delivery is skipped, and gets the missed
+ * samples with its next one. The scheduler only runs while there are
+ * subscribers.
+ * <p>
+ * Readers copy from the ring buffer without locking; samples that the
+ * producer overwrites while being copied are left out.
+ */
+public final class MetricStream {
+
+    private static final MetricStream SHARED = new MetricStream(600,
+            Duration.ofMillis(100), Duration.ofMillis(500),
+            randomWalk(50, 2, 0, 100));
+
+    private final long[] times;
+    private final double[] values;
+    private final Duration sampleInterval;
+    private final Duration frameInterval;
+    private final DoubleSupplier source;
+    // Number of samples written, published after each write
+    private volatile long sequence;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Creates a stream.
+     *
+     * @param capacity
+     *            the number of most recent samples kept
+     * @param sampleInterval
+     *            how often the source is sampled
+     * @param frameInterval
+     *            how often subscribers get new samples
+     * @param source
+     *            the metric, called only from the scheduler thread
+     */
+    public MetricStream(int capacity, Duration sampleInterval,
+            Duration frameInterval, DoubleSupplier source) {
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+        this.sampleInterval = sampleInterval;
+        this.frameInterval = frameInterval;
+        this.source = source;
+    }
+
+    /**
+     * Returns the stream shared by all sessions, a synthetic load percentage
+     * sampled ten times per second.
+     */
+    public static MetricStream shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a source that moves randomly by at most the given step per
+     * sample, within the given bounds.
+     */
+    public static DoubleSupplier randomWalk(double start, double step,
+            double min, double max) {
+        double[] value = { start };
+        return () -> {
+            value[0] = Math.clamp(value[0] + ThreadLocalRandom.current()
+                    .nextDouble(-step, step), min, max);
+            return value[0];
+        };
+    }
+
+    /**
+     * Returns the number of samples the stream keeps.
+     */
+    public int getCapacity() {
+        return times.length;
+    }
+
+    /**
+     * Returns the samples currently in the buffer, oldest first.
+     */
+    public List<Point> snapshot() {
+        return readSince(0);
+    }
+
+    /**
+     * Delivers new samples to the given listener in the UI thread of the
+     * given UI, once per frame while the UI is attached.
+     *
+     * @return a registration for removing the subscription
+     */
+    public Registration subscribe(UI ui,
+            SerializableConsumer<List<Point>> listener) {
+        Subscriber[] self = new Subscriber[1];
+        self[0] = subscribe(command -> {
+            try {
+                ui.access(command::run);
+            } catch (UIDetachedException e) {
+                unsubscribe(self[0]);
+            }
+        }, listener);
+        return () -> unsubscribe(self[0]);
+    }
+
+    /**
+     * Delivers new samples to the given listener through the given executor,
+     * once per frame.
+     */
+    Subscriber subscribe(Executor delivery, Consumer<List<Point>> listener) {
+        Subscriber subscriber = new Subscriber(delivery, listener, sequence);
+        synchronized (subscribers) {
+            subscribers.add(subscriber);
+            if (scheduler == null) {
+                start();
+            }
+        }
+        return subscriber;
+    }
+
+    void unsubscribe(Subscriber subscriber) {
+        synchronized (subscribers) {
+            if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+                scheduler.shutdown();
+                scheduler = null;
+            }
+        }
+    }
+
+    private void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread
+                .ofPlatform().daemon().name("metric-stream").factory());
+        scheduler.scheduleAtFixedRate(this::sample, 0,
+                sampleInterval.toNanos(), TimeUnit.NANOSECONDS);
+        scheduler.scheduleAtFixedRate(this::frame, frameInterval.toNanos(),
+                frameInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes a sample. Runs only on the scheduler thread, so there is a
+     * single writer.
+     */
+    private void sample() {
+        long next = sequence;
+        int slot = (int) (next % times.length);
+        times[slot] = System.currentTimeMillis();
+        values[slot] = source.getAsDouble();
+        sequence = next + 1;
+    }
+
+    private void frame() {
+        frames.increment();
+        long latest = sequence;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.delivered == latest) {
+                continue;
+            }
+            if (!subscriber.busy.compareAndSet(false, true)) {
+                skipped.increment();
+                continue;
+            }
+            deliveries.increment();
+            subscriber.delivery.execute(() -> {
+                try {
+                    List<Point> points = readSince(subscriber.delivered);
+                    if (!points.isEmpty()) {
+                        subscriber.delivered = points.getLast().sequence() + 1;
+                        subscriber.listener.accept(points);
+                    }
+                } finally {
+                    subscriber.busy.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the samples from the given sequence number on that are still in
+     * the buffer, oldest first.
+     */
+    List<Point> readSince(long from) {
+        long to = sequence;
+        long start = Math.max(from, to - times.length);
+        List<Point> points = new ArrayList<>((int) (to - start));
+        for (long i = start; i < to; i++) {
+            int slot = (int) (i % times.length);
+            points.add(new Point(i, times[slot], values[slot]));
+        }
+        // Keeps the copying above from being reordered after the re-read
+        VarHandle.acquireFence();
+        // Drop the samples overwritten by the producer while copying, and
+        // the one it may be overwriting right now
+        long overwritten = sequence + 1 - times.length - start;
+        if (overwritten > 0) {
+            points.subList(0, (int) Math.min(overwritten, points.size()))
+                    .clear();
+        }
+        return points;
+    }
+
+    /**
+     * Returns a snapshot of the stream statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(subscribers.size(), sequence, frames.sum(),
+                deliveries.sum(), skipped.sum());
+    }
+
+    /**
+     * One subscriber and the last sample sequence delivered to it.
+     */
+    static final class Subscriber {
+
+        private final Executor delivery;
+        private final Consumer<List<Point>> listener;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long delivered;
+
+        private Subscriber(Executor delivery,
+                Consumer<List<Point>> listener, long delivered) {
+            this.delivery = delivery;
+            this.listener = listener;
+            this.delivered = delivered;
+        }
+    }
+
+    /**
+     * One sample, with its position in the stream and the time it was taken
+     * in epoch milliseconds.
+     */
+    public record Point(long sequence, long time, double value) {
+    }
+
+    /**
+     * Stream statistics. A delivery is skipped when the subscriber is still
+     * busy with the previous one.
+     */
+    public record Statistics(int subscribers, long samples, long frames,
+            long deliveries, long skipped) {
+    }
+}
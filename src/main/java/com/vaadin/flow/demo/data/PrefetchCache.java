@@ -0,0 +1,157 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A size-bounded LRU cache of values loaded from a slow backend on virtual
+ * threads, with support for loading values before they are asked for.
+ * <p>
+ * Each key is loaded at most once while it stays cached: asking for a value
+ * that is still loading joins the pending load instead of starting another
+ * one. Failed loads are not cached, so the next request tries again.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PrefetchCache<K, V> {
+
+    private static final ExecutorService LOADERS = Executors
+            .newVirtualThreadPerTaskExecutor();
+
+    private final Function<K, V> loader;
+    private final Map<K, CompletableFuture<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+
+    /**
+     * Creates a cache holding at most the given number of values, loaded
+     * with the given function.
+     */
+    public PrefetchCache(Function<K, V> loader, int maxEntries) {
+        this.loader = loader;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<K, CompletableFuture<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the value for the key, completed at once if it is cached, or
+     * completed on a virtual thread when it has been loaded.
+     */
+    public CompletableFuture<V> get(K key) {
+        CompletableFuture<V> future;
+        synchronized (entries) {
+            future = entries.get(key);
+            if (future == null) {
+                future = load(key);
+            }
+        }
+        if (future.isDone()) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return future;
+    }
+
+    /**
+     * Returns the value for the key if it has been loaded, without starting
+     * a load or waiting for one in progress.
+     *
+     * @return the value, or {@code null} if it is not loaded
+     */
+    public V getIfPresent(K key) {
+        CompletableFuture<V> future;
+        synchronized (entries) {
+            future = entries.get(key);
+        }
+        if (future != null && future.state() == Future.State.SUCCESS) {
+            hits.increment();
+            return future.resultNow();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a value that the caller has loaded itself, replacing any load
+     * in progress for the key.
+     */
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, CompletableFuture.completedFuture(value));
+        }
+    }
+
+    /**
+     * Starts loading the values that are not cached or loading yet, without
+     * waiting for them.
+     */
+    public void prefetch(Collection<K> keys) {
+        synchronized (entries) {
+            for (K key : keys) {
+                if (!entries.containsKey(key)) {
+                    load(key);
+                    prefetches.increment();
+                }
+            }
+        }
+    }
+
+    // Called while holding the entries lock
+    private CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future = CompletableFuture
+                .supplyAsync(() -> loader.apply(key), LOADERS);
+        entries.put(key, future);
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                synchronized (entries) {
+                    entries.remove(key, future);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), prefetches.sum());
+    }
+
+    /**
+     * Cache statistics at one point in time. A hit is a value that was ready
+     * when it was asked for.
+     */
+    public record Statistics(long hits, long misses, long prefetches) {
+    }
+}
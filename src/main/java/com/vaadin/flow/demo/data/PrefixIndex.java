@@ -0,0 +1,191 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, case-insensitive prefix index over a large list of strings.
+ * <p>
+ * All entries are sorted and packed into a single {@code char[]} with an
+ * offset table, so a million entries cost a few bytes each instead of one
+ * {@link String} object each. Entries sharing a prefix form a contiguous
+ * range, found with two binary searches: counting matches is
+ * {@code O(log n)} and fetching a page only materializes the strings on that
+ * page.
+ * <p>
+ * Instances are thread-safe and meant to be shared between sessions.
+ */
+public final class PrefixIndex {
+
+    private final char[] chars;
+    private final int[] offsets;
+
+    private PrefixIndex(char[] chars, int[] offsets) {
+        this.chars = chars;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Builds an index of the given values. Duplicates are kept.
+     */
+    public static PrefixIndex of(Collection<String> values) {
+        String[] sorted = values.toArray(String[]::new);
+        Arrays.parallelSort(sorted, PrefixIndex::compareFolded);
+
+        int[] offsets = new int[sorted.length + 1];
+        int length = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            offsets[i] = length;
+            length += sorted[i].length();
+        }
+        offsets[sorted.length] = length;
+
+        char[] chars = new char[length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i].getChars(0, sorted[i].length(), chars, offsets[i]);
+        }
+        return new PrefixIndex(chars, offsets);
+    }
+
+    /**
+     * Returns the number of entries in the index.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the entry at the given sorted position.
+     */
+    public String get(int position) {
+        return new String(chars, offsets[position],
+                offsets[position + 1] - offsets[position]);
+    }
+
+    /**
+     * Returns the sorted position of the given entry, or -1 if it is not in
+     * the index.
+     */
+    public int indexOf(String value) {
+        for (int position = lowerBound(value); position < size()
+                && compareAt(position, value, false) == 0; position++) {
+            if (get(position).equals(value)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the first entry starting with the given prefix,
+     * or the position where such an entry would be inserted.
+     */
+    public int lowerBound(String prefix) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareAt(mid, prefix, false) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position just after the last entry starting with the given
+     * prefix.
+     */
+    public int upperBound(String prefix) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareAt(mid, prefix, true) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of entries starting with the given prefix, ignoring
+     * case.
+     */
+    public int count(String prefix) {
+        if (prefix.isEmpty()) {
+            return size();
+        }
+        return upperBound(prefix) - lowerBound(prefix);
+    }
+
+    /**
+     * Returns one page of the entries starting with the given prefix, ignoring
+     * case, in sorted order.
+     */
+    public Stream<String> fetch(String prefix, int offset, int limit) {
+        int from = prefix.isEmpty() ? 0 : lowerBound(prefix);
+        int to = prefix.isEmpty() ? size() : upperBound(prefix);
+        int start = (int) Math.min((long) from + offset, to);
+        int end = (int) Math.min((long) start + limit, to);
+        return IntStream.range(start, end).mapToObj(this::get);
+    }
+
+    /**
+     * Compares the entry at the given position with the given key. When
+     * {@code prefixOnly} is set, an entry starting with the key compares as
+     * equal to it.
+     */
+    private int compareAt(int position, String key, boolean prefixOnly) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            int diff = fold(chars[start + i]) - fold(key.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (prefixOnly && length >= key.length()) {
+            return 0;
+        }
+        return length - key.length();
+    }
+
+    private static int compareFolded(String a, String b) {
+        int common = Math.min(a.length(), b.length());
+        for (int i = 0; i < common; i++) {
+            int diff = fold(a.charAt(i)) - fold(b.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        int diff = a.length() - b.length();
+        return diff != 0 ? diff : a.compareTo(b);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
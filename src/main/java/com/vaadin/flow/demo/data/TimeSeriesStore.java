@@ -0,0 +1,381 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An in-memory time series compressed the way Facebook's Gorilla does it.
+ * <p>
+ * Points are appended in time order into blocks of a fixed number of points.
+ * Within a block, timestamps are stored as the difference between
+ * consecutive deltas, which is zero for regular samples and then takes a
+ * single bit. Values are stored as the XOR with the previous value, which is
+ * zero for repeated values and otherwise usually has few meaningful bits.
+ * Full blocks are sealed and indexed by their time range, so a query only
+ * decodes the blocks that overlap it.
+ * <p>
+ * Appends are serialized. Queries decode outside the lock, from sealed
+ * blocks, which never change, and a copy of the block being filled.
+ */
+public final class TimeSeriesStore {
+
+    private final int pointsPerBlock;
+    private final List<Block> sealed = new ArrayList<>();
+    private Block head;
+    private long points;
+
+    /**
+     * Creates an empty store with the given number of points per block.
+     */
+    public TimeSeriesStore(int pointsPerBlock) {
+        this.pointsPerBlock = pointsPerBlock;
+    }
+
+    /**
+     * Appends a point.
+     *
+     * @param time
+     *            the time of the point in epoch milliseconds, not before the
+     *            previous point
+     * @throws IllegalArgumentException
+     *             if the point is older than the previous one
+     */
+    public synchronized void append(long time, double value) {
+        if (head == null) {
+            head = new Block(time, value);
+        } else {
+            if (time < head.endTime) {
+                throw new IllegalArgumentException(
+                        "Points must be appended in time order");
+            }
+            if (head.count == pointsPerBlock) {
+                head.trim();
+                sealed.add(head);
+                head = new Block(time, value);
+            } else {
+                head.append(time, value);
+            }
+        }
+        points++;
+    }
+
+    /**
+     * Returns the points from the given time, inclusive, to the given time,
+     * exclusive.
+     */
+    public Range query(long from, long to) {
+        List<Block> blocks = new ArrayList<>();
+        synchronized (this) {
+            // The first sealed block that ends at or after the start
+            int low = 0;
+            int high = sealed.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sealed.get(middle).endTime < from) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (int i = low; i < sealed.size()
+                    && sealed.get(i).startTime < to; i++) {
+                blocks.add(sealed.get(i));
+            }
+            if (head != null && head.endTime >= from
+                    && head.startTime < to) {
+                blocks.add(head.copy());
+            }
+        }
+
+        RangeBuilder range = new RangeBuilder(
+                Math.min((long) blocks.size() * pointsPerBlock,
+                        Integer.MAX_VALUE - 8));
+        for (Block block : blocks) {
+            block.decode(from, to, range);
+        }
+        return range.build();
+    }
+
+    /**
+     * Returns a snapshot of the store statistics.
+     */
+    public synchronized Statistics getStatistics() {
+        long bytes = 0;
+        for (Block block : sealed) {
+            bytes += block.bytes();
+        }
+        if (head != null) {
+            bytes += head.bytes();
+        }
+        return new Statistics(points, sealed.size() + (head == null ? 0 : 1),
+                bytes);
+    }
+
+    /**
+     * Points in time order, as parallel arrays.
+     */
+    public record Range(long[] times, double[] values) {
+
+        /**
+         * Returns the number of points.
+         */
+        public int size() {
+            return times.length;
+        }
+    }
+
+    /**
+     * Store statistics. The byte count includes the fixed overhead of each
+     * block.
+     */
+    public record Statistics(long points, int blocks, long bytes) {
+
+        /**
+         * Returns the average memory used per point.
+         */
+        public double bytesPerPoint() {
+            return points == 0 ? 0 : (double) bytes / points;
+        }
+    }
+
+    private static final class RangeBuilder {
+
+        private long[] times;
+        private double[] values;
+        private int size;
+
+        RangeBuilder(long capacity) {
+            times = new long[(int) capacity];
+            values = new double[(int) capacity];
+        }
+
+        void add(long time, double value) {
+            times[size] = time;
+            values[size] = value;
+            size++;
+        }
+
+        Range build() {
+            return new Range(Arrays.copyOf(times, size),
+                    Arrays.copyOf(values, size));
+        }
+    }
+
+    /**
+     * A run of compressed points with the encoder state for appending more.
+     */
+    private static final class Block {
+
+        // Object header, fields and the bit array header, roughly
+        private static final int OVERHEAD = 96;
+
+        private final long startTime;
+        private long endTime;
+        private int count;
+        private long[] words;
+        private int bits;
+
+        private long previousDelta;
+        private long previousValue;
+        private int previousLeading;
+        private int previousTrailing;
+
+        Block(long time, double value) {
+            words = new long[16];
+            startTime = time;
+            endTime = time;
+            previousValue = Double.doubleToRawLongBits(value);
+            previousLeading = -1;
+            count = 1;
+            // The first value is stored in full, the first time is the start
+            write(previousValue, 64);
+        }
+
+        private Block(Block block) {
+            startTime = block.startTime;
+            endTime = block.endTime;
+            count = block.count;
+            words = Arrays.copyOf(block.words, (block.bits + 63) >>> 6);
+            bits = block.bits;
+        }
+
+        Block copy() {
+            return new Block(this);
+        }
+
+        void trim() {
+            words = Arrays.copyOf(words, (bits + 63) >>> 6);
+        }
+
+        long bytes() {
+            return OVERHEAD + 8L * words.length;
+        }
+
+        void append(long time, double value) {
+            long delta = time - endTime;
+            long deltaOfDelta = delta - previousDelta;
+            if (deltaOfDelta == 0) {
+                write(0, 1);
+            } else if (deltaOfDelta >= -64 && deltaOfDelta < 64) {
+                write(0b10, 2);
+                write(deltaOfDelta, 7);
+            } else if (deltaOfDelta >= -256 && deltaOfDelta < 256) {
+                write(0b110, 3);
+                write(deltaOfDelta, 9);
+            } else if (deltaOfDelta >= -2048 && deltaOfDelta < 2048) {
+                write(0b1110, 4);
+                write(deltaOfDelta, 12);
+            } else {
+                write(0b1111, 4);
+                write(deltaOfDelta, 64);
+            }
+            previousDelta = delta;
+            endTime = time;
+
+            long valueBits = Double.doubleToRawLongBits(value);
+            long xor = valueBits ^ previousValue;
+            if (xor == 0) {
+                write(0, 1);
+            } else {
+                int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+                int trailing = Long.numberOfTrailingZeros(xor);
+                if (previousLeading >= 0 && leading >= previousLeading
+                        && trailing >= previousTrailing) {
+                    // Fits in the previous window of meaningful bits
+                    write(0b10, 2);
+                    write(xor >>> previousTrailing,
+                            64 - previousLeading - previousTrailing);
+                } else {
+                    int meaningful = 64 - leading - trailing;
+                    write(0b11, 2);
+                    write(leading, 5);
+                    write(meaningful - 1, 6);
+                    write(xor >>> trailing, meaningful);
+                    previousLeading = leading;
+                    previousTrailing = trailing;
+                }
+            }
+            previousValue = valueBits;
+            count++;
+        }
+
+        private void write(long value, int length) {
+            int index = bits >>> 6;
+            if (index + 2 > words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            if (length < 64) {
+                value &= (1L << length) - 1;
+            }
+            int free = 64 - (bits & 63);
+            if (length <= free) {
+                words[index] |= value << (free - length);
+            } else {
+                words[index] |= value >>> (length - free);
+                words[index + 1] = value << (64 - (length - free));
+            }
+            bits += length;
+        }
+
+        /**
+         * Decodes the points of this block within the given range.
+         */
+        void decode(long from, long to, RangeBuilder range) {
+            Reader reader = new Reader(words);
+            long time = startTime;
+            long value = reader.read(64);
+            long delta = 0;
+            int leading = 0;
+            int trailing = 0;
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    delta += readDeltaOfDelta(reader);
+                    time += delta;
+                    if (time >= to) {
+                        return;
+                    }
+                    if (reader.read(1) != 0) {
+                        if (reader.read(1) != 0) {
+                            leading = (int) reader.read(5);
+                            int meaningful = (int) reader.read(6) + 1;
+                            trailing = 64 - leading - meaningful;
+                        }
+                        value ^= reader.read(64 - leading - trailing)
+                                << trailing;
+                    }
+                }
+                if (time >= from) {
+                    range.add(time, Double.longBitsToDouble(value));
+                }
+            }
+        }
+
+        private static long readDeltaOfDelta(Reader reader) {
+            if (reader.read(1) == 0) {
+                return 0;
+            }
+            if (reader.read(1) == 0) {
+                return signed(reader.read(7), 7);
+            }
+            if (reader.read(1) == 0) {
+                return signed(reader.read(9), 9);
+            }
+            if (reader.read(1) == 0) {
+                return signed(reader.read(12), 12);
+            }
+            return reader.read(64);
+        }
+
+        private static long signed(long value, int length) {
+            return (value << (64 - length)) >> (64 - length);
+        }
+    }
+
+    /**
+     * Reads bits in the order a block wrote them.
+     */
+    private static final class Reader {
+
+        private final long[] words;
+        private int position;
+
+        Reader(long[] words) {
+            this.words = words;
+        }
+
+        long read(int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int index = position >>> 6;
+            int offset = position & 63;
+            int available = 64 - offset;
+            long result;
+            if (length <= available) {
+                result = (words[index] << offset) >>> (64 - length);
+            } else {
+                int rest = length - available;
+                result = ((words[index] << offset) >>> (64 - length))
+                        | (words[index + 1] >>> (64 - rest));
+            }
+            position += length;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import com.vaadin.flow.demo.data.WriteBehindBuffer.Cell;
+
+/**
+ * Converts a block of tab-separated text, as copied from a spreadsheet, into
+ * typed cell values of a grid.
+ * <p>
+ * The block is placed with its top-left corner at an anchor cell. Lines are
+ * split and converted in parallel, and cells falling outside the grid are
+ * skipped. The result is a map of cell values ready to be written as one
+ * batch, plus a reason for every cell that could not be converted.
+ */
+public final class TsvPaste {
+
+    private TsvPaste() {
+    }
+
+    /**
+     * Parses the given text into cell values.
+     *
+     * @param tsv
+     *            the pasted text, one grid row per line and one cell per tab
+     * @param rowIds
+     *            the ids of the grid rows, in display order
+     * @param columns
+     *            the keys of the pasteable columns, in display order
+     * @param anchorRow
+     *            the display index of the row receiving the first line
+     * @param anchorColumn
+     *            the display index of the column receiving the first cell of
+     *            each line
+     * @param converter
+     *            converts the text of one cell to the value of the column
+     */
+    public static <K, V> Result<K, V> parse(String tsv, List<K> rowIds,
+            List<String> columns, int anchorRow, int anchorColumn,
+            Converter<V> converter) {
+        String[] lines = tsv.split("\r?\n", -1);
+        int lineCount = lines.length;
+        if (lineCount > 0 && lines[lineCount - 1].isEmpty()) {
+            // Spreadsheets end the copied block with a line break
+            lineCount--;
+        }
+
+        Map<Cell<K>, V> values = new ConcurrentHashMap<>();
+        Map<Cell<K>, String> errors = new ConcurrentHashMap<>();
+        LongAdder skipped = new LongAdder();
+        IntStream.range(0, lineCount).parallel().forEach(line -> {
+            String[] texts = lines[line].split("\t", -1);
+            int row = anchorRow + line;
+            for (int i = 0; i < texts.length; i++) {
+                int column = anchorColumn + i;
+                if (row >= rowIds.size() || column >= columns.size()) {
+                    skipped.increment();
+                    continue;
+                }
+                Cell<K> cell = new Cell<>(rowIds.get(row),
+                        columns.get(column));
+                try {
+                    values.put(cell,
+                            converter.convert(cell.column(), texts[i]));
+                } catch (IllegalArgumentException e) {
+                    errors.put(cell, e.getMessage() != null ? e.getMessage()
+                            : "Invalid value: " + texts[i]);
+                }
+            }
+        });
+        return new Result<>(values, errors, skipped.intValue());
+    }
+
+    /**
+     * Converts the text of one pasted cell to a typed value.
+     *
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    public interface Converter<V> {
+
+        /**
+         * Converts the text for the given column, throwing an
+         * {@link IllegalArgumentException} if it is not valid.
+         */
+        V convert(String column, String text);
+    }
+
+    /**
+     * The converted cells, the cells that failed to convert with a reason, and
+     * the number of cells outside the grid.
+     */
+    public record Result<K, V>(Map<Cell<K>, V> values,
+            Map<Cell<K>, String> errors, int skipped) {
+    }
+}
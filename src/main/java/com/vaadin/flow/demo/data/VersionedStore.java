@@ -0,0 +1,166 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Rows shared by many editors, updated with optimistic concurrency control.
+ * <p>
+ * Every row is an immutable snapshot stamped with a version, and every column
+ * remembers the row version that last changed it. An editor updates a cell
+ * against the row version it last saw: the update is rejected as a conflict if
+ * someone else has changed that same cell since, while changes to other cells
+ * of the row are merged. Updates are applied with compare-and-set, retrying
+ * when another column of the row changed concurrently, so reads never block
+ * and writers never hold a lock.
+ * <p>
+ * Row values must not be modified after they are passed to the store.
+ *
+ * @param <K> the row id type
+ * @param <V> the row value type
+ */
+public final class VersionedStore<K, V> {
+
+    private final Map<K, Versioned<V>> rows = new ConcurrentHashMap<>();
+    private final List<Consumer<Change<K, V>>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * Creates a store holding the given rows, all at version 1.
+     */
+    public VersionedStore(Map<K, V> initialRows) {
+        initialRows.forEach(
+                (id, value) -> rows.put(id, new Versioned<>(value, 1, Map.of())));
+    }
+
+    /**
+     * Returns the current snapshot of a row, or null if there is no such row.
+     */
+    public Versioned<V> get(K id) {
+        return rows.get(id);
+    }
+
+    /**
+     * Changes one cell of a row, unless the cell has changed since the given
+     * version of the row.
+     *
+     * @param id
+     *            the row id
+     * @param column
+     *            the key of the changed column
+     * @param baseVersion
+     *            the version of the row the editor last saw
+     * @param change
+     *            creates the new row value from the current one, without
+     *            modifying it; may be called more than once
+     * @param origin
+     *            identifies the editor, passed on to change listeners
+     * @return the outcome, with the current row either way
+     */
+    public UpdateResult<V> update(K id, String column, long baseVersion,
+            UnaryOperator<V> change, Object origin) {
+        while (true) {
+            Versioned<V> current = rows.get(id);
+            if (current == null) {
+                throw new IllegalArgumentException("No such row: " + id);
+            }
+            if (current.columnVersion(column) > baseVersion) {
+                conflicts.increment();
+                return new UpdateResult<>(false, current);
+            }
+            Map<String, Long> columnVersions = new HashMap<>(
+                    current.columnVersions());
+            long version = current.version() + 1;
+            columnVersions.put(column, version);
+            Versioned<V> next = new Versioned<>(change.apply(current.value()),
+                    version, Map.copyOf(columnVersions));
+            if (rows.replace(id, current, next)) {
+                updates.increment();
+                Change<K, V> event = new Change<>(id, column, next, origin);
+                listeners.forEach(listener -> listener.accept(event));
+                return new UpdateResult<>(true, next);
+            }
+            // Another cell of the row changed meanwhile; merge and retry
+            retries.increment();
+        }
+    }
+
+    /**
+     * Adds a listener notified after every successful update, on the updating
+     * thread.
+     */
+    public Registration addChangeListener(Consumer<Change<K, V>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Returns a snapshot of the store statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(updates.sum(), conflicts.sum(), retries.sum());
+    }
+
+    /**
+     * An immutable row value with its version, and the row version at which
+     * each changed column was last written.
+     *
+     * @param <V> the row value type
+     */
+    public record Versioned<V>(V value, long version,
+            Map<String, Long> columnVersions) {
+
+        /**
+         * Returns the row version at which the column was last written.
+         */
+        public long columnVersion(String column) {
+            return columnVersions.getOrDefault(column, 0L);
+        }
+    }
+
+    /**
+     * The outcome of an update: whether it was applied, and the current row.
+     * When it was not applied, the row shows the value that won.
+     */
+    public record UpdateResult<V>(boolean applied, Versioned<V> row) {
+    }
+
+    /**
+     * A successful update of one cell.
+     */
+    public record Change<K, V>(K id, String column, Versioned<V> row,
+            Object origin) {
+    }
+
+    /**
+     * Store statistics at one point in time.
+     */
+    public record Statistics(long updates, long conflicts, long retries) {
+    }
+}
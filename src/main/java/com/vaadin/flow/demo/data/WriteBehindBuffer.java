@@ -0,0 +1,251 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Queues cell edits and writes them to a backing store in batches.
+ * <p>
+ * Edits to the same cell are coalesced while they wait, so only the latest
+ * value is written. The buffer is flushed when it reaches the batch size, on a
+ * fixed interval, or when {@link #flush()} or {@link #close()} is called.
+ * Flushes triggered by size or time run on virtual threads, never on the
+ * thread that enqueued the edit. Cells the store rejects are reported to flush
+ * listeners with a reason, so the UI can mark them.
+ *
+ * @param <K> the row id type
+ * @param <V> the cell value type
+ */
+public final class WriteBehindBuffer<K, V> implements AutoCloseable {
+
+    private static final ScheduledExecutorService TIMER = Executors
+            .newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon()
+                    .name("write-behind-timer").factory());
+
+    private final BatchWriter<K, V> writer;
+    private final int maxBatchSize;
+    private final ScheduledFuture<?> timer;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final List<Consumer<FlushResult<K, V>>> listeners = new CopyOnWriteArrayList<>();
+
+    private LinkedHashMap<Cell<K>, V> pending = new LinkedHashMap<>();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+
+    /**
+     * Creates a buffer that flushes to the given writer when
+     * {@code maxBatchSize} distinct cells are pending, and at least every
+     * {@code flushInterval}.
+     */
+    public WriteBehindBuffer(BatchWriter<K, V> writer, int maxBatchSize,
+            Duration flushInterval) {
+        this.writer = writer;
+        this.maxBatchSize = maxBatchSize;
+        long interval = flushInterval.toMillis();
+        this.timer = TIMER.scheduleWithFixedDelay(this::flushAsync, interval,
+                interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a new value for a cell, replacing any value still pending for
+     * it.
+     */
+    public void enqueue(K rowId, String column, V value) {
+        enqueueAll(Map.of(new Cell<>(rowId, column), value));
+    }
+
+    /**
+     * Queues new values for many cells at once.
+     */
+    public void enqueueAll(Map<Cell<K>, V> values) {
+        boolean full;
+        synchronized (this) {
+            values.forEach((cell, value) -> {
+                if (pending.put(cell, value) != null) {
+                    coalesced.increment();
+                }
+            });
+            full = pending.size() >= maxBatchSize;
+        }
+        enqueued.add(values.size());
+        if (full) {
+            flushAsync();
+        }
+    }
+
+    /**
+     * Returns the number of cells waiting to be written.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns whether a value for the given cell is waiting to be written.
+     */
+    public synchronized boolean isPending(Cell<K> cell) {
+        return pending.containsKey(cell);
+    }
+
+    /**
+     * Writes all pending cells to the store as one batch and notifies the
+     * flush listeners. Blocks until the batch is written.
+     */
+    public FlushResult<K, V> flush() {
+        flushLock.lock();
+        try {
+            Map<Cell<K>, V> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return new FlushResult<>(Map.of(), Map.of(), 0);
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            long start = System.nanoTime();
+            Map<Cell<K>, String> failures;
+            try {
+                failures = writer.write(batch);
+            } catch (RuntimeException e) {
+                failures = new LinkedHashMap<>();
+                for (Cell<K> cell : batch.keySet()) {
+                    failures.put(cell, String.valueOf(e.getMessage()));
+                }
+            }
+            long duration = System.nanoTime() - start;
+
+            batches.increment();
+            flushNanos.add(duration);
+            failed.add(failures.size());
+            written.add(batch.size() - failures.size());
+
+            FlushResult<K, V> result = new FlushResult<>(batch, failures,
+                    duration);
+            listeners.forEach(listener -> listener.accept(result));
+            return result;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the buffer on a virtual thread and returns immediately. The
+     * result goes to the flush listeners.
+     */
+    public void flushAsync() {
+        // At most one background flush waits at a time; edits arriving
+        // meanwhile are picked up by it
+        if (flushQueued.compareAndSet(false, true)) {
+            Thread.startVirtualThread(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Adds a listener notified after every flush, on the flushing thread.
+     */
+    public Registration addFlushListener(Consumer<FlushResult<K, V>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Returns a snapshot of the buffer statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(enqueued.sum(), coalesced.sum(), written.sum(),
+                failed.sum(), batches.sum(), flushNanos.sum());
+    }
+
+    /**
+     * Stops the flush timer and writes everything still pending.
+     */
+    @Override
+    public void close() {
+        timer.cancel(false);
+        flush();
+    }
+
+    /**
+     * Identifies one cell by row id and column key.
+     *
+     * @param <K> the row id type
+     */
+    public record Cell<K>(K rowId, String column) {
+    }
+
+    /**
+     * Writes one batch of cell values to the backing store.
+     *
+     * @param <K> the row id type
+     * @param <V> the cell value type
+     */
+    @FunctionalInterface
+    public interface BatchWriter<K, V> {
+
+        /**
+         * Writes the given cells and returns the ones that could not be
+         * written, each with a reason. Returns an empty map on full success.
+         */
+        Map<Cell<K>, String> write(Map<Cell<K>, V> batch);
+    }
+
+    /**
+     * The outcome of one flush.
+     */
+    public record FlushResult<K, V>(Map<Cell<K>, V> batch,
+            Map<Cell<K>, String> failures, long durationNanos) {
+    }
+
+    /**
+     * Buffer statistics at one point in time.
+     */
+    public record Statistics(long enqueued, long coalesced, long written,
+            long failed, long batches, long flushNanos) {
+
+        /**
+         * Returns the cells written per second of time spent flushing.
+         */
+        public double cellsPerSecond() {
+            return flushNanos == 0 ? 0
+                    : (written + failed) * 1_000_000_000.0 / flushNanos;
+        }
+    }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.streams.UploadEvent;
+import com.vaadin.flow.server.streams.UploadHandler;
+import com.vaadin.flow.server.streams.UploadResult;
+
+/**
+ * An upload handler that receives files in fixed-size chunks, so an
+ * interrupted upload can be resumed instead of restarted.
+ * <p>
+ * The browser side is installed on an ordinary {@link Upload} with
+ * {@link #install(Upload)}. It takes over sending each file: it first asks
+ * which chunks the server is still missing, then sends those, a few at a
+ * time, retrying failed chunks with a back-off. If a chunk keeps failing, the
+ * file is marked as interrupted, and retrying it in the upload list resumes
+ * from the chunks already received. Uploads are tracked per session, so a
+ * reload of the page can resume too.
+ * <p>
+ * On the server, an upload is only tracked once its first chunk has been
+ * admitted by the node's {@link UploadGovernor}, which also throttles every
+ * chunk. Each session can have {@link #MAX_UPLOADS_PER_SESSION} unfinished
+ * uploads and the node {@link #MAX_UPLOADS}; further uploads are refused until
+ * one finishes or has been idle for an hour and is discarded. The target file
+ * is preallocated at its full size, and chunks are written at their own
+ * position as they arrive, in any order. Completed uploads are remembered for
+ * a while, so a chunk retried after the upload finished is acknowledged
+ * without starting it over. The listener is called in the UI thread once
+ * every chunk has arrived, and becomes the owner of the file.
+ * <p>
+ * Malformed chunk requests are answered with 400, files over the size limit
+ * with 413, refused uploads with 429, and chunks the governor could not admit
+ * in time with 503.
+ */
+public class ChunkedUploadHandler implements UploadHandler {
+
+    /** The number of unfinished uploads a session can have. */
+    public static final int MAX_UPLOADS_PER_SESSION = 3;
+
+    /** The number of unfinished uploads the node keeps. */
+    public static final int MAX_UPLOADS = 32;
+
+    static final String UPLOAD_ID = "X-Upload-Id";
+    static final String CHUNK_INDEX = "X-Chunk-Index";
+    static final String CHUNK_SIZE = "X-Chunk-Size";
+    static final String TOTAL_SIZE = "X-Total-Size";
+    static final String MISSING_CHUNKS = "X-Missing-Chunks";
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int MAX_UPLOAD_ID_LENGTH = 512;
+    private static final Duration IDLE_TIMEOUT = Duration.ofHours(1);
+    private static final Duration COMPLETED_MEMORY = Duration.ofMinutes(10);
+    private static final int MAX_COMPLETED = 1024;
+
+    private static final Map<String, PartialUpload> PARTIAL_UPLOADS = new ConcurrentHashMap<>();
+    // Upload keys by completion time, oldest first
+    private static final LinkedHashMap<String, Long> COMPLETED = new LinkedHashMap<>();
+
+    private static final String CLIENT = """
+            const upload = this;
+            const chunkSize = $0;
+            if (upload.chunkedUploadInstalled) {
+                return;
+            }
+            upload.chunkedUploadInstalled = true;
+            const parseRanges = text => (text || '').split(',')
+                .filter(range => range)
+                .flatMap(range => {
+                    const [first, last = first] = range.split('-').map(Number);
+                    return Array.from({ length: last - first + 1 }, (_, i) => first + i);
+                });
+            upload.addEventListener('upload-request', event => {
+                event.preventDefault();
+                const file = event.detail.file;
+                const target = file.uploadTarget || upload.target;
+                const chunks = Math.max(1, Math.ceil(file.size / chunkSize));
+                const headers = index => ({
+                    'Content-Type': 'application/octet-stream',
+                    'X-Filename': encodeURIComponent(file.name),
+                    'X-Upload-Id': encodeURIComponent(file.name + ':' + file.size + ':' + file.lastModified),
+                    'X-Chunk-Index': String(index),
+                    'X-Chunk-Size': String(chunkSize),
+                    'X-Total-Size': String(file.size)
+                });
+                const update = properties => {
+                    Object.assign(file, properties);
+                    upload.files = [...upload.files];
+                };
+                const send = async index => {
+                    for (let attempt = 0; ; attempt++) {
+                        try {
+                            const response = await fetch(target, { method: 'POST',
+                                headers: headers(index),
+                                body: file.slice(index * chunkSize, (index + 1) * chunkSize) });
+                            if (response.ok) {
+                                return;
+                            }
+                            throw new Error('HTTP ' + response.status);
+                        } catch (error) {
+                            if (attempt >= 4) {
+                                throw error;
+                            }
+                            await new Promise(resolve => setTimeout(resolve, 500 * 2 ** attempt));
+                        }
+                    }
+                };
+                (async () => {
+                    update({ uploading: true, held: false, complete: false, error: '',
+                        indeterminate: true, status: 'Checking for earlier progress' });
+                    try {
+                        const probe = await fetch(target, { method: 'POST', headers: headers(-1) });
+                        if (!probe.ok) {
+                            throw new Error('HTTP ' + probe.status);
+                        }
+                        const queue = parseRanges(probe.headers.get('X-Missing-Chunks'));
+                        let done = chunks - queue.length;
+                        const worker = async () => {
+                            while (queue.length) {
+                                await send(queue.shift());
+                                done++;
+                                update({ indeterminate: false, progress: Math.floor(100 * done / chunks),
+                                    status: done + ' of ' + chunks + ' chunks' });
+                            }
+                        };
+                        await Promise.all([worker(), worker(), worker()]);
+                        update({ uploading: false, complete: true, progress: 100, status: '' });
+                    } catch (error) {
+                        update({ uploading: false, indeterminate: false,
+                            error: 'Interrupted, retry to resume' });
+                    }
+                })();
+            });
+            """;
+
+    private final int chunkSize;
+    private final long maxFileSize;
+    private final SerializableConsumer<CompletedUpload> listener;
+
+    /**
+     * Creates a handler receiving files of at most {@code maxFileSize} bytes
+     * in chunks of {@code chunkSize} bytes.
+     */
+    public ChunkedUploadHandler(int chunkSize, long maxFileSize,
+            SerializableConsumer<CompletedUpload> listener) {
+        this.chunkSize = chunkSize;
+        this.maxFileSize = maxFileSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Makes the given upload send its files in chunks to this handler.
+     */
+    public void install(Upload upload) {
+        upload.setUploadHandler(this);
+        upload.setMaxFileSize((int) Math.min(maxFileSize, Integer.MAX_VALUE));
+        upload.addAttachListener(
+                event -> upload.getElement().executeJs(CLIENT, chunkSize));
+    }
+
+    @Override
+    public void handleUploadRequest(UploadEvent event) throws IOException {
+        ChunkRequest chunk = parse(event.getRequest()::getHeader);
+        String sessionId = event.getSession().getSession().getId();
+        if (chunk.index() < 0) {
+            // A probe before sending, answered with what is still missing
+            event.getResponse().setHeader(MISSING_CHUNKS,
+                    missingChunks(sessionId, chunk));
+            return;
+        }
+        CompletedUpload file = receive(sessionId, event.getFileName(), chunk,
+                event.getInputStream());
+        if (file != null) {
+            event.getUI().access(() -> listener.accept(file));
+        }
+    }
+
+    /**
+     * Answers refused chunks with a status the browser side can act on,
+     * instead of a server error.
+     */
+    @Override
+    public void responseHandled(UploadResult result) {
+        if (result.exception() instanceof ChunkRejectedException rejected) {
+            result.response().setStatus(rejected.getStatus());
+        } else if (result
+                .exception() instanceof UploadGovernor.UploadRejectedException) {
+            result.response().setStatus(
+                    HttpStatusCode.SERVICE_UNAVAILABLE.getCode());
+        } else {
+            UploadHandler.super.responseHandled(result);
+        }
+    }
+
+    /**
+     * Reads and validates the chunk headers.
+     *
+     * @throws ChunkRejectedException
+     *             with status 400 if a header is missing or invalid
+     */
+    ChunkRequest parse(UnaryOperator<String> headers)
+            throws ChunkRejectedException {
+        String uploadId = headers.apply(UPLOAD_ID);
+        if (uploadId == null || uploadId.isEmpty()
+                || uploadId.length() > MAX_UPLOAD_ID_LENGTH) {
+            throw badRequest("Missing or invalid " + UPLOAD_ID);
+        }
+        long index = number(headers, CHUNK_INDEX);
+        long size = number(headers, CHUNK_SIZE);
+        long totalSize = number(headers, TOTAL_SIZE);
+        if (size != chunkSize) {
+            throw badRequest("Unexpected chunk size " + size);
+        }
+        if (totalSize < 0) {
+            throw badRequest("Invalid total size " + totalSize);
+        }
+        if (totalSize > maxFileSize) {
+            throw new ChunkRejectedException(
+                    HttpStatusCode.REQUEST_ENTITY_TOO_LARGE.getCode(),
+                    "The file is larger than the limit of " + maxFileSize
+                            + " bytes");
+        }
+        int chunkCount = chunkCount(totalSize, chunkSize);
+        if (index < -1 || index >= chunkCount) {
+            throw badRequest("No chunk " + index);
+        }
+        return new ChunkRequest(uploadId, (int) index, totalSize, chunkCount);
+    }
+
+    private static long number(UnaryOperator<String> headers, String name)
+            throws ChunkRejectedException {
+        String value = headers.apply(name);
+        if (value == null) {
+            throw badRequest("Missing " + name);
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw badRequest("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static ChunkRejectedException badRequest(String message) {
+        return new ChunkRejectedException(
+                HttpStatusCode.BAD_REQUEST.getCode(), message);
+    }
+
+    private static int chunkCount(long totalSize, int chunkSize) {
+        return (int) Math.max(1, (totalSize + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Returns the chunks of an upload the server does not have yet. An upload
+     * without state is missing every chunk; probing does not create state.
+     */
+    static String missingChunks(String sessionId, ChunkRequest chunk)
+            throws ChunkRejectedException {
+        String key = key(sessionId, chunk.uploadId());
+        PartialUpload upload = PARTIAL_UPLOADS.get(key);
+        if (upload == null) {
+            synchronized (COMPLETED) {
+                // Sending the same file again is a new upload
+                COMPLETED.remove(key);
+            }
+            return ranges(new BitSet(), chunk.chunkCount());
+        }
+        if (upload.totalSize != chunk.totalSize()) {
+            throw badRequest("Upload " + chunk.uploadId() + " changed size");
+        }
+        return upload.missingChunks();
+    }
+
+    /**
+     * Admits and writes one chunk, creating the upload on its first chunk.
+     *
+     * @return the completed file if this chunk completed it, otherwise null
+     */
+    CompletedUpload receive(String sessionId, String fileName,
+            ChunkRequest chunk, InputStream in) throws IOException {
+        String key = key(sessionId, chunk.uploadId());
+        if (isCompleted(key)) {
+            // A retry of a chunk whose answer was lost
+            return null;
+        }
+        try (UploadGovernor.Permit permit = UploadGovernor.shared()
+                .admit(sessionId, () -> {
+                });
+                InputStream throttled = permit.throttle(in)) {
+            PartialUpload upload = PARTIAL_UPLOADS.get(key);
+            if (upload == null) {
+                upload = create(sessionId, key, fileName, chunk.totalSize());
+                if (upload == null) {
+                    return null;
+                }
+            }
+            if (upload.totalSize != chunk.totalSize()) {
+                throw badRequest(
+                        "Upload " + chunk.uploadId() + " changed size");
+            }
+            if (!upload.write(chunk.index(), throttled)) {
+                return null;
+            }
+            // Remembered before it is forgotten, so a late chunk cannot
+            // start the upload over
+            synchronized (COMPLETED) {
+                COMPLETED.put(key, System.nanoTime());
+                if (COMPLETED.size() > MAX_COMPLETED) {
+                    COMPLETED.pollFirstEntry();
+                }
+            }
+            PARTIAL_UPLOADS.remove(key, upload);
+            // Waits for duplicate chunks still being written
+            upload.close();
+            return new CompletedUpload(upload.fileName, upload.path,
+                    upload.totalSize, upload.chunkCount);
+        }
+    }
+
+    /**
+     * Creates the state of an upload on its first chunk, or returns null if
+     * the upload has just completed.
+     */
+    private PartialUpload create(String sessionId, String key,
+            String fileName, long totalSize) throws IOException {
+        synchronized (PARTIAL_UPLOADS) {
+            PartialUpload upload = PARTIAL_UPLOADS.get(key);
+            if (upload != null || isCompleted(key)) {
+                return upload;
+            }
+            discardIdleUploads();
+            String prefix = sessionId + "/";
+            long sessionUploads = PARTIAL_UPLOADS.keySet().stream()
+                    .filter(other -> other.startsWith(prefix)).count();
+            if (sessionUploads >= MAX_UPLOADS_PER_SESSION
+                    || PARTIAL_UPLOADS.size() >= MAX_UPLOADS) {
+                throw new ChunkRejectedException(TOO_MANY_REQUESTS,
+                        "Too many unfinished uploads, finish or cancel one "
+                                + "first");
+            }
+            upload = new PartialUpload(fileName, totalSize, chunkSize,
+                    UploadMetrics.shared().begin(fileName, totalSize));
+            PARTIAL_UPLOADS.put(key, upload);
+            return upload;
+        }
+    }
+
+    private static boolean isCompleted(String key) {
+        long cutoff = System.nanoTime() - COMPLETED_MEMORY.toNanos();
+        synchronized (COMPLETED) {
+            Map.Entry<String, Long> oldest;
+            while ((oldest = COMPLETED.firstEntry()) != null
+                    && oldest.getValue() - cutoff < 0) {
+                COMPLETED.pollFirstEntry();
+            }
+            return COMPLETED.containsKey(key);
+        }
+    }
+
+    private static String key(String sessionId, String uploadId) {
+        return sessionId + "/" + uploadId;
+    }
+
+    private static void discardIdleUploads() {
+        long cutoff = System.nanoTime() - IDLE_TIMEOUT.toNanos();
+        PARTIAL_UPLOADS.forEach((key, upload) -> {
+            if (upload.lastActivity - cutoff < 0
+                    && PARTIAL_UPLOADS.remove(key, upload)) {
+                upload.discard();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of uploads with chunks still missing.
+     */
+    static int partialUploadCount() {
+        return PARTIAL_UPLOADS.size();
+    }
+
+    @Override
+    public long getFileSizeMax() {
+        return chunkSize;
+    }
+
+    /**
+     * A file whose chunks have all been received.
+     */
+    public record CompletedUpload(String fileName, Path path, long size,
+            int chunks) {
+    }
+
+    /**
+     * The validated headers of one chunk request. A negative index is a
+     * probe for the missing chunks.
+     */
+    record ChunkRequest(String uploadId, int index, long totalSize,
+            int chunkCount) {
+    }
+
+    /**
+     * Thrown when a chunk request is refused, with the HTTP status to answer.
+     */
+    static class ChunkRejectedException extends IOException {
+
+        private final int status;
+
+        ChunkRejectedException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * Returns the clear bits as comma-separated ranges, such as
+     * {@code 0-4,7}.
+     */
+    private static String ranges(BitSet received, int chunkCount) {
+        StringBuilder ranges = new StringBuilder();
+        int first = received.nextClearBit(0);
+        while (first < chunkCount) {
+            int next = received.nextSetBit(first);
+            int last = (next < 0 ? chunkCount : next) - 1;
+            if (!ranges.isEmpty()) {
+                ranges.append(',');
+            }
+            ranges.append(first);
+            if (last > first) {
+                ranges.append('-').append(last);
+            }
+            first = received.nextClearBit(last + 1);
+        }
+        return ranges.toString();
+    }
+
+    /**
+     * A preallocated file being filled one chunk at a time.
+     * <p>
+     * Chunks are written under a shared lock, so duplicates of a chunk can
+     * be written concurrently, while closing or discarding takes the lock
+     * exclusively and waits for them. A chunk arriving after that is ignored.
+     */
+    static final class PartialUpload {
+
+        private final String fileName;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final Path path;
+        private final FileChannel channel;
+        private final BitSet received;
+        private final UploadMetrics.Transfer transfer;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed;
+        private volatile long lastActivity = System.nanoTime();
+
+        PartialUpload(String fileName, long totalSize, int chunkSize,
+                UploadMetrics.Transfer transfer) throws IOException {
+            this.transfer = transfer;
+            this.fileName = fileName;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount(totalSize, chunkSize);
+            this.received = new BitSet(chunkCount);
+            this.path = Files.createTempFile("chunked-", ".tmp");
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(),
+                    "rw")) {
+                file.setLength(totalSize);
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * Writes one chunk at its position in the file. Chunks may arrive
+         * concurrently and in any order; a chunk that fails part way is
+         * simply sent again.
+         *
+         * @return whether this completed the file
+         */
+        boolean write(int index, InputStream in) throws IOException {
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                return writeOpen(index, in);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean writeOpen(int index, InputStream in)
+                throws IOException {
+            lastActivity = System.nanoTime();
+            long start = (long) index * chunkSize;
+            long expected = Math.min(chunkSize, totalSize - start);
+            long position = start;
+
+            DirectBufferPool pool = DirectBufferPool.shared();
+            ByteBuffer buffer = pool.acquire();
+            try {
+                ReadableByteChannel source = Channels.newChannel(in);
+                int read;
+                while ((read = source.read(buffer)) >= 0) {
+                    transfer.add(read);
+                    if (position - start + buffer.position() > expected) {
+                        throw new IOException("Chunk " + index
+                                + " is longer than " + expected + " bytes");
+                    }
+                    if (!buffer.hasRemaining()) {
+                        position = drain(buffer, position);
+                    }
+                }
+                position = drain(buffer, position);
+            } finally {
+                pool.release(buffer);
+            }
+            if (position - start != expected) {
+                throw new IOException("Chunk " + index + " is incomplete");
+            }
+
+            synchronized (this) {
+                if (received.get(index)) {
+                    // A duplicate; the chunk that set the bit reports it
+                    return false;
+                }
+                received.set(index);
+                return received.cardinality() == chunkCount;
+            }
+        }
+
+        private long drain(ByteBuffer buffer, long position)
+                throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+            return position;
+        }
+
+        /**
+         * Returns the chunks not received yet as comma-separated ranges.
+         */
+        synchronized String missingChunks() {
+            return ranges(received, chunkCount);
+        }
+
+        void close() throws IOException {
+            lock.writeLock().lock();
+            try {
+                closed = true;
+                transfer.end();
+                channel.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void discard() {
+            lock.writeLock().lock();
+            try {
+                closed = true;
+                transfer.end();
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Nothing more can be done for an abandoned upload
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local content-addressed file store. Every file is stored once, under the
+ * hex SHA-256 hash of its content, in a two-level directory layout such as
+ * {@code 3f/a2/3fa2...}.
+ * <p>
+ * Files are received into a temporary file in the store's own directory and
+ * then moved into place, which is a rename rather than a copy. If the store
+ * already has the content, the temporary file is deleted and the existing
+ * file is used instead, so duplicates never take space twice.
+ */
+public final class ContentStore {
+
+    private static final ContentStore SHARED = new ContentStore(
+            Path.of(System.getProperty("java.io.tmpdir"),
+                    "kitchen-sink-uploads"));
+
+    private final Path root;
+    private final Path incoming;
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesStored = new LongAdder();
+    private final LongAdder receiveNanos = new LongAdder();
+
+    /**
+     * Creates a store in the given directory, creating it if needed.
+     */
+    public ContentStore(Path root) {
+        this.root = root;
+        this.incoming = root.resolve("incoming");
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the store shared by all sessions, in the system temporary
+     * directory.
+     */
+    public static ContentStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates an empty file to receive new content into.
+     */
+    Path createIncomingFile() throws IOException {
+        return Files.createTempFile(incoming, "upload-", ".tmp");
+    }
+
+    /**
+     * Adds a received file under its hash, moving it into place, or deleting
+     * it if the content is already stored.
+     *
+     * @param received
+     *            a file created with {@link #createIncomingFile()}
+     * @param sha256
+     *            the hex SHA-256 hash of the file content
+     * @param nanos
+     *            the time it took to receive the file, for the statistics
+     * @return the stored file
+     */
+    StoredFile add(Path received, String sha256, long nanos)
+            throws IOException {
+        long size = Files.size(received);
+        bytesReceived.add(size);
+        receiveNanos.add(nanos);
+
+        Path target = pathOf(sha256);
+        boolean duplicate = Files.exists(target);
+        if (!duplicate) {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(received, target);
+                files.increment();
+                bytesStored.add(size);
+            } catch (FileAlreadyExistsException e) {
+                // The same content arrived concurrently
+                duplicate = true;
+            }
+        }
+        if (duplicate) {
+            Files.delete(received);
+            duplicates.increment();
+        }
+        return new StoredFile(sha256, target, duplicate);
+    }
+
+    /**
+     * Returns where content with the given hash is or would be stored.
+     */
+    public Path pathOf(String sha256) {
+        return root.resolve(sha256.substring(0, 2))
+                .resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Returns a snapshot of the store statistics.
+     */
+    public Statistics getStatistics() {
+        return new Statistics(files.sum(), duplicates.sum(),
+                bytesReceived.sum(), bytesStored.sum(), receiveNanos.sum());
+    }
+
+    /**
+     * Where a received file ended up, and whether it was already stored.
+     */
+    record StoredFile(String sha256, Path path, boolean duplicate) {
+    }
+
+    /**
+     * Store statistics at one point in time.
+     */
+    public record Statistics(long files, long duplicates, long bytesReceived,
+            long bytesStored, long receiveNanos) {
+
+        /**
+         * Returns the bytes received per byte stored, 1 when nothing was
+         * deduplicated.
+         */
+        public double dedupRatio() {
+            return bytesStored == 0 ? 1 : (double) bytesReceived / bytesStored;
+        }
+
+        /**
+         * Returns the bytes received per second of time spent receiving.
+         */
+        public double bytesPerSecond() {
+            return receiveNanos == 0 ? 0
+                    : bytesReceived * 1_000_000_000.0 / receiveNanos;
+        }
+    }
+}
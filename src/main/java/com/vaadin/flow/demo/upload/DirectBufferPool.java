@@ -0,0 +1,101 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed-size pool of equally sized direct byte buffers.
+ * <p>
+ * Buffers are allocated on first use, up to the maximum count, and reused
+ * after that. When all buffers are in use, {@link #acquire()} waits for one to
+ * be released, so the off-heap memory used for I/O never exceeds
+ * {@code bufferSize * maxBuffers}.
+ */
+public final class DirectBufferPool {
+
+    private static final DirectBufferPool SHARED = new DirectBufferPool(
+            64 * 1024, 64);
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    /**
+     * Creates a pool of at most {@code maxBuffers} buffers of
+     * {@code bufferSize} bytes each.
+     */
+    public DirectBufferPool(int bufferSize, int maxBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    /**
+     * Returns the pool shared by all uploads: 64 buffers of 64 KB, so at most
+     * 4 MB of direct memory.
+     */
+    public static DirectBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, waiting if all are in use.
+     */
+    public ByteBuffer acquire() throws InterruptedIOException {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            if (allocated.getAndUpdate(
+                    count -> count < maxBuffers ? count + 1 : count) < maxBuffers) {
+                return ByteBuffer.allocateDirect(bufferSize);
+            }
+            try {
+                buffer = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(
+                        "Interrupted while waiting for a buffer");
+            }
+        }
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a buffer taken with {@link #acquire()} to the pool.
+     */
+    public void release(ByteBuffer buffer) {
+        free.offer(buffer);
+    }
+
+    /**
+     * Returns the size of each buffer in bytes.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of buffers allocated so far.
+     */
+    public int getAllocatedCount() {
+        return allocated.get();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableRunnable;
+import com.vaadin.flow.server.streams.UploadEvent;
+import com.vaadin.flow.server.streams.UploadHandler;
+
+/**
+ * An upload handler that streams each file straight to a temporary file, so
+ * the heap used per upload does not grow with the file size.
+ * <p>
+ * Data is copied through a direct buffer borrowed from a pool shared by all
+ * uploads, and written with a {@link FileChannel}. The size limit is checked
+ * against the declared size before anything is written, and again while
+ * streaming, so a client that lies about the size is cut off as soon as it
+ * goes over. Rejected and failed uploads leave no file behind. The SHA-256
+ * hash of the content is computed from the same buffer as it streams through,
+ * and every upload is tracked in the node's {@link UploadMetrics}. Uploads
+ * are admitted and throttled by the node's {@link UploadGovernor}.
+ * <p>
+ * The listener is called in the UI thread with the finished file. Without a
+ * {@link ContentStore}, the listener becomes the owner of the temporary file
+ * and should move or delete it when done. With a store, the file is added to
+ * the store, which owns it.
+ */
+public class DiskUploadHandler implements UploadHandler {
+
+    private final long maxFileSize;
+    private final SerializableConsumer<UploadedFile> listener;
+    private SerializableConsumer<String> failureListener = message -> {
+    };
+    private SerializableRunnable queuedListener = () -> {
+    };
+    private ContentStore contentStore;
+
+    /**
+     * Creates a handler accepting files of at most the given size.
+     */
+    public DiskUploadHandler(long maxFileSize,
+            SerializableConsumer<UploadedFile> listener) {
+        this.maxFileSize = maxFileSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Sets a listener called in the UI thread with the reason whenever an
+     * upload is rejected or fails.
+     */
+    public DiskUploadHandler withFailureListener(
+            SerializableConsumer<String> failureListener) {
+        this.failureListener = failureListener;
+        return this;
+    }
+
+    /**
+     * Sets a listener called in the UI thread when an upload has to wait for
+     * other uploads on the node to finish before it can start.
+     */
+    public DiskUploadHandler withQueuedListener(
+            SerializableRunnable queuedListener) {
+        this.queuedListener = queuedListener;
+        return this;
+    }
+
+    /**
+     * Adds received files to the given store, so that identical content is
+     * only stored once.
+     */
+    public DiskUploadHandler withContentStore(ContentStore contentStore) {
+        this.contentStore = contentStore;
+        return this;
+    }
+
+    @Override
+    public void handleUploadRequest(UploadEvent event) throws IOException {
+        String fileName = event.getFileName();
+        try {
+            if (event.getFileSize() > maxFileSize) {
+                throw new IOException(fileName + " is larger than the limit of "
+                        + maxFileSize + " bytes");
+            }
+            UploadGovernor.Permit permit = UploadGovernor.shared().admit(
+                    event.getSession().getSession().getId(),
+                    () -> event.getUI().access(queuedListener::run));
+            Path path;
+            MessageDigest digest = sha256();
+            long start = System.nanoTime();
+            long size;
+            UploadMetrics.Transfer transfer = UploadMetrics.shared()
+                    .begin(fileName, event.getFileSize());
+            try (permit; InputStream in = permit.throttle(event.getInputStream())) {
+                path = contentStore != null ? contentStore.createIncomingFile()
+                        : Files.createTempFile("upload-", ".tmp");
+                try {
+                    size = copy(in, path, maxFileSize, digest, transfer);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(path);
+                    throw e;
+                }
+            } finally {
+                transfer.end();
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            boolean duplicate = false;
+            if (contentStore != null) {
+                ContentStore.StoredFile stored = contentStore.add(path, hash,
+                        System.nanoTime() - start);
+                path = stored.path();
+                duplicate = stored.duplicate();
+            }
+            UploadedFile file = new UploadedFile(fileName,
+                    event.getContentType(), path, size, hash, duplicate);
+            event.getUI().access(() -> listener.accept(file));
+        } catch (IOException e) {
+            event.getUI().access(() -> failureListener.accept(e.getMessage()));
+            throw e;
+        }
+    }
+
+    @Override
+    public long getFileSizeMax() {
+        return maxFileSize;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copies the stream to the file through a pooled direct buffer, updating
+     * the digest with every byte and the transfer with every read, and
+     * failing as soon as more than {@code maxSize} bytes have been read.
+     *
+     * @return the number of bytes written
+     */
+    static long copy(InputStream in, Path path, long maxSize,
+            MessageDigest digest, UploadMetrics.Transfer transfer)
+            throws IOException {
+        ByteBuffer buffer = DirectBufferPool.shared().acquire();
+        try (ReadableByteChannel source = Channels.newChannel(in);
+                FileChannel target = FileChannel.open(path,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long total = 0;
+            int read;
+            while ((read = source.read(buffer)) >= 0) {
+                total += read;
+                transfer.add(read);
+                if (total > maxSize) {
+                    throw new IOException("Upload exceeds the limit of "
+                            + maxSize + " bytes");
+                }
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, target, digest);
+                }
+            }
+            drain(buffer, target, digest);
+            return total;
+        } finally {
+            DirectBufferPool.shared().release(buffer);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel target,
+            MessageDigest digest) throws IOException {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.rewind();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * A file received by a {@link DiskUploadHandler}, with the hex SHA-256
+     * hash of its content. A duplicate is content a {@link ContentStore}
+     * already had, and the path then refers to the existing copy.
+     */
+    public record UploadedFile(String fileName, String contentType, Path path,
+            long size, String sha256, boolean duplicate) {
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Creates thumbnails and reads basic metadata of uploaded images in the
+ * background.
+ * <p>
+ * Jobs wait in a bounded queue served by a fixed number of worker virtual
+ * threads. When the queue is full, {@link #submit} refuses the job at once
+ * instead of queueing without limit, so the caller can tell the user to try
+ * again later. Large images are subsampled while decoding, so a worker never
+ * holds much more than a thumbnail's worth of pixels per image.
+ * <p>
+ * The pipeline owns submitted files and deletes them when done.
+ */
+public final class ImagePipeline {
+
+    private static final ImagePipeline SHARED = new ImagePipeline(4, 32, 160);
+
+    // Completion times of recent images, for the throughput
+    private static final int RATE_WINDOW = 64;
+
+    private final BlockingQueue<Job> queue;
+    private final int thumbnailSize;
+    private final long[] completions = new long[RATE_WINDOW];
+    private int completionCount;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a pipeline with the given number of workers and queue
+     * capacity, making thumbnails that fit in a square of the given size.
+     */
+    public ImagePipeline(int workers, int queueCapacity, int thumbnailSize) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.thumbnailSize = thumbnailSize;
+        for (int i = 0; i < workers; i++) {
+            Thread.ofVirtual().name("image-pipeline-", i).start(this::work);
+        }
+    }
+
+    /**
+     * Returns the pipeline shared by all sessions.
+     */
+    public static ImagePipeline shared() {
+        return SHARED;
+    }
+
+    /**
+     * Queues an image for processing.
+     *
+     * @param fileName
+     *            the original file name, for the result
+     * @param file
+     *            the image file, deleted by the pipeline when done
+     * @param listener
+     *            notified as the job moves through the pipeline: on the
+     *            calling thread when queued or rejected, then on a worker
+     *            thread
+     * @return whether the job was queued; if not, the queue is full, the
+     *         listener was told the job failed and the file was deleted
+     */
+    public boolean submit(String fileName, Path file,
+            Consumer<Progress> listener) {
+        // Before the offer, as a worker may take the job right away
+        listener.accept(new Progress(fileName, Stage.QUEUED, null, null));
+        if (!queue.offer(new Job(fileName, file, listener))) {
+            rejected.increment();
+            delete(file);
+            listener.accept(new Progress(fileName, Stage.FAILED, null,
+                    "Too many images are being processed"));
+            return false;
+        }
+        return true;
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            job.listener.accept(
+                    new Progress(job.fileName, Stage.PROCESSING, null, null));
+            long start = System.nanoTime();
+            try {
+                ImageResult result = process(job, start);
+                processed.increment();
+                recordCompletion();
+                job.listener.accept(
+                        new Progress(job.fileName, Stage.DONE, result, null));
+            } catch (IOException | RuntimeException e) {
+                failed.increment();
+                job.listener.accept(new Progress(job.fileName, Stage.FAILED,
+                        null, String.valueOf(e.getMessage())));
+            } finally {
+                delete(job.file);
+            }
+        }
+    }
+
+    private ImageResult process(Job job, long start) throws IOException {
+        try (ImageInputStream input = ImageIO
+                .createImageInputStream(job.file.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null
+                    : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Not a supported image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Dimensions come from the header, without decoding pixels
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1,
+                        Math.max(width, height) / (thumbnailSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                return new ImageResult(job.fileName, reader.getFormatName(),
+                        width, height, thumbnail(image),
+                        System.nanoTime() - start);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] thumbnail(BufferedImage image) throws IOException {
+        double scale = Math.min(1, (double) thumbnailSize
+                / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private synchronized void recordCompletion() {
+        completions[completionCount++ % RATE_WINDOW] = System.nanoTime();
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left to the temporary directory cleanup
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pipeline statistics.
+     */
+    public Statistics getStatistics() {
+        double rate;
+        synchronized (this) {
+            int count = Math.min(completionCount, RATE_WINDOW);
+            long newest = completions[(completionCount - 1 + RATE_WINDOW)
+                    % RATE_WINDOW];
+            long oldest = completions[(completionCount - count + RATE_WINDOW)
+                    % RATE_WINDOW];
+            rate = count < 2 || newest == oldest ? 0
+                    : (count - 1) * 1_000_000_000.0 / (newest - oldest);
+        }
+        return new Statistics(queue.size(), processed.sum(), failed.sum(),
+                rejected.sum(), rate);
+    }
+
+    private record Job(String fileName, Path file,
+            Consumer<Progress> listener) {
+    }
+
+    /**
+     * The stages a job goes through.
+     */
+    public enum Stage {
+        QUEUED, PROCESSING, DONE, FAILED
+    }
+
+    /**
+     * A job reaching a new stage, with the result when done or the reason
+     * when failed.
+     */
+    public record Progress(String fileName, Stage stage, ImageResult result,
+            String error) {
+    }
+
+    /**
+     * The metadata and JPEG thumbnail of one image.
+     */
+    public record ImageResult(String fileName, String format, int width,
+            int height, byte[] thumbnail, long durationNanos) {
+    }
+
+    /**
+     * Pipeline statistics at one point in time. The throughput is measured
+     * over the most recently completed images.
+     */
+    public record Statistics(int queued, long processed, long failed,
+            long rejected, double imagesPerSecond) {
+    }
+}
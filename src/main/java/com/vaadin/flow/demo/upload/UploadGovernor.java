@@ -0,0 +1,260 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Node-wide admission control and bandwidth budgeting for uploads.
+ * <p>
+ * At most a fixed number of uploads run at the same time. Further uploads wait
+ * in arrival order for a free slot, up to a maximum wait, and are rejected
+ * after that. The ingress bandwidth budget is shared equally between the
+ * sessions that have uploads running, and each session spends its share
+ * through its own token bucket, so one session with many uploads cannot
+ * starve the others.
+ */
+public final class UploadGovernor {
+
+    private static final UploadGovernor SHARED = new UploadGovernor(16,
+            100L * 1024 * 1024, Duration.ofSeconds(30));
+
+    private final int maxConcurrent;
+    private final long bytesPerSecond;
+    private final Duration maxWait;
+    private final Semaphore slots;
+    private final Map<String, Bucket> sessions = new HashMap<>();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+
+    /**
+     * Creates a governor.
+     *
+     * @param maxConcurrent
+     *            the number of uploads that may run at the same time
+     * @param bytesPerSecond
+     *            the ingress budget shared by all uploads
+     * @param maxWait
+     *            how long an upload may wait for a slot before it is rejected
+     */
+    public UploadGovernor(int maxConcurrent, long bytesPerSecond,
+            Duration maxWait) {
+        this.maxConcurrent = maxConcurrent;
+        this.bytesPerSecond = bytesPerSecond;
+        this.maxWait = maxWait;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Returns the governor of this node.
+     */
+    public static UploadGovernor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Admits an upload, waiting for a free slot if needed.
+     *
+     * @param sessionId
+     *            identifies the session the upload belongs to
+     * @param onQueued
+     *            run once, before waiting, if no slot is free right away
+     * @return the permit to read the upload through and close when done
+     * @throws UploadRejectedException
+     *             if no slot became free in time
+     */
+    public Permit admit(String sessionId, Runnable onQueued)
+            throws IOException {
+        // An untimed tryAcquire barges past waiting uploads even on a fair
+        // semaphore, so it is only tried when nobody is waiting
+        if (slots.hasQueuedThreads() || !slots.tryAcquire()) {
+            queued.increment();
+            onQueued.run();
+            waiting.incrementAndGet();
+            try {
+                if (!slots.tryAcquire(maxWait.toMillis(),
+                        TimeUnit.MILLISECONDS)) {
+                    rejected.increment();
+                    throw new UploadRejectedException(
+                            "The server is busy with other uploads, please try again later");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(
+                        "Interrupted while waiting to upload");
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        admitted.increment();
+        Bucket bucket;
+        synchronized (sessions) {
+            bucket = sessions.computeIfAbsent(sessionId, id -> new Bucket());
+            bucket.uploads++;
+        }
+        return new Permit(sessionId, bucket);
+    }
+
+    private double sessionRate() {
+        int active;
+        synchronized (sessions) {
+            active = Math.max(1, sessions.size());
+        }
+        return (double) bytesPerSecond / active;
+    }
+
+    /**
+     * Returns a snapshot of the governor statistics.
+     */
+    public Statistics getStatistics() {
+        int sessionCount;
+        synchronized (sessions) {
+            sessionCount = sessions.size();
+        }
+        return new Statistics(maxConcurrent - slots.availablePermits(),
+                waiting.get(), sessionCount, sessionRate(), admitted.sum(),
+                queued.sum(), rejected.sum(), throttledNanos.sum());
+    }
+
+    /**
+     * A running upload's slot and share of the bandwidth.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final String sessionId;
+        private final Bucket bucket;
+        private boolean closed;
+
+        private Permit(String sessionId, Bucket bucket) {
+            this.sessionId = sessionId;
+            this.bucket = bucket;
+        }
+
+        /**
+         * Returns a stream that reads from the given one no faster than the
+         * session's share of the bandwidth budget.
+         */
+        public InputStream throttle(InputStream in) {
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    int value = super.read();
+                    if (value >= 0) {
+                        spend(1);
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length)
+                        throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    if (read > 0) {
+                        spend(read);
+                    }
+                    return read;
+                }
+            };
+        }
+
+        private void spend(int bytes) throws InterruptedIOException {
+            long waitNanos = bucket.take(bytes, sessionRate());
+            if (waitNanos > 0) {
+                throttledNanos.add(waitNanos);
+                LockSupport.parkNanos(waitNanos);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Upload interrupted");
+                }
+            }
+        }
+
+        /**
+         * Frees the slot. Closing more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synchronized (sessions) {
+                if (--bucket.uploads == 0) {
+                    sessions.remove(sessionId);
+                }
+            }
+            slots.release();
+        }
+    }
+
+    /**
+     * A token bucket holding the bytes a session may read without waiting.
+     * It refills at the session's current share of the budget and holds at
+     * most a quarter of a second's worth, so an idle session cannot save up
+     * a large burst.
+     */
+    private static final class Bucket {
+
+        private int uploads;
+        private double tokens;
+        private long refilled = System.nanoTime();
+
+        /**
+         * Takes the given number of bytes, going into debt if needed, and
+         * returns how long to wait for the debt to be paid back.
+         */
+        synchronized long take(int bytes, double rate) {
+            long now = System.nanoTime();
+            tokens = Math.min(rate / 4,
+                    tokens + (now - refilled) * rate / 1_000_000_000);
+            refilled = now;
+            tokens -= bytes;
+            return tokens >= 0 ? 0 : (long) (-tokens / rate * 1_000_000_000);
+        }
+    }
+
+    /**
+     * Thrown when an upload cannot be admitted in time.
+     */
+    public static class UploadRejectedException extends IOException {
+        public UploadRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Governor statistics at one point in time.
+     */
+    public record Statistics(int running, int waiting, int sessions,
+            double sessionBytesPerSecond, long admitted, long queued,
+            long rejected, long throttledNanos) {
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-wide upload metrics: the uploads in progress with the rate of each,
+ * the aggregate ingress rate, and totals.
+ * <p>
+ * Each upload is tracked by a {@link Transfer} from {@link #begin} until
+ * {@link Transfer#end()}. Reporting bytes is a couple of atomic additions, so
+ * it can be done for every buffer read.
+ */
+public final class UploadMetrics {
+
+    private static final UploadMetrics SHARED = new UploadMetrics();
+
+    private final Set<Transfer> active = ConcurrentHashMap.newKeySet();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * Returns the metrics of this node.
+     */
+    public static UploadMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Starts tracking an upload.
+     *
+     * @param fileName
+     *            the name of the uploaded file
+     * @param expectedBytes
+     *            the size of the file, or -1 if not known
+     */
+    public Transfer begin(String fileName, long expectedBytes) {
+        Transfer transfer = new Transfer(fileName, expectedBytes);
+        active.add(transfer);
+        return transfer;
+    }
+
+    /**
+     * Returns a snapshot of the metrics, with the active uploads ordered
+     * from the oldest.
+     */
+    public Snapshot snapshot() {
+        long now = System.nanoTime();
+        List<TransferStatistics> transfers = active.stream()
+                .sorted(Comparator.comparingLong(transfer -> transfer.started))
+                .map(transfer -> transfer.statistics(now)).toList();
+        double ingress = transfers.stream()
+                .mapToDouble(TransferStatistics::bytesPerSecond).sum();
+        return new Snapshot(transfers, ingress, totalBytes.sum(),
+                completed.sum());
+    }
+
+    /**
+     * One upload being tracked.
+     */
+    public final class Transfer {
+
+        private final String fileName;
+        private final long expectedBytes;
+        private final long started = System.nanoTime();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Transfer(String fileName, long expectedBytes) {
+            this.fileName = fileName;
+            this.expectedBytes = expectedBytes;
+        }
+
+        /**
+         * Records more bytes received.
+         */
+        public void add(long newBytes) {
+            bytes.addAndGet(newBytes);
+            totalBytes.add(newBytes);
+        }
+
+        /**
+         * Records the total number of bytes received so far, for sources
+         * that report running totals.
+         */
+        public void progress(long receivedBytes) {
+            add(receivedBytes - bytes.get());
+        }
+
+        /**
+         * Stops tracking the upload. Calling this more than once has no
+         * effect.
+         */
+        public void end() {
+            if (active.remove(this)) {
+                completed.increment();
+            }
+        }
+
+        private TransferStatistics statistics(long now) {
+            long received = bytes.get();
+            long elapsed = Math.max(1, now - started);
+            return new TransferStatistics(fileName, received, expectedBytes,
+                    received * 1_000_000_000.0 / elapsed);
+        }
+    }
+
+    /**
+     * The state of one upload in progress. The rate is the average since
+     * the upload started.
+     */
+    public record TransferStatistics(String fileName, long bytes,
+            long expectedBytes, double bytesPerSecond) {
+    }
+
+    /**
+     * Upload metrics at one point in time. The ingress rate is the sum of the
+     * rates of the uploads in progress.
+     */
+    public record Snapshot(List<TransferStatistics> active,
+            double ingressBytesPerSecond, long totalBytes, long completed) {
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.server.streams.UploadEvent;
+import com.vaadin.flow.server.streams.UploadHandler;
+
+/**
+ * An upload handler that extracts ZIP archives while they stream in, without
+ * storing the archive anywhere.
+ * <p>
+ * Entries are read one at a time from a {@link ZipInputStream} over the
+ * request body and handed to a pool of virtual threads for processing, while
+ * the next entry is already being read. The entries held in memory across
+ * the node share a fixed byte budget: before an entry is read, the size in
+ * its header, or the maximum entry size if the header has none, is reserved,
+ * and reading waits while the budget is used up. What the entry did not need
+ * is returned once it has been read. Each result is passed to the entry
+ * listener in the UI thread as soon as it is ready.
+ * <p>
+ * The archive is rejected as soon as it exceeds the {@link Limits}: too many
+ * entries, an entry or the total too large when uncompressed, or an overall
+ * compression ratio typical of a zip bomb. Entries processed before that are
+ * still reported.
+ */
+public class ZipUploadHandler implements UploadHandler {
+
+    private static final ExecutorService PROCESSORS = Executors
+            .newVirtualThreadPerTaskExecutor();
+    // In kilobytes; fair, so that a large reservation is not starved by
+    // small ones
+    private static final int MEMORY_BUDGET_KB = 64 * 1024;
+    private static final Semaphore MEMORY_BUDGET = new Semaphore(
+            MEMORY_BUDGET_KB, true);
+
+    private final Limits limits;
+    private final SerializableConsumer<EntryResult> entryListener;
+    private SerializableConsumer<ArchiveSummary> finishedListener = summary -> {
+    };
+    private SerializableConsumer<String> failureListener = message -> {
+    };
+
+    /**
+     * Creates a handler extracting archives within the given limits.
+     */
+    public ZipUploadHandler(Limits limits,
+            SerializableConsumer<EntryResult> entryListener) {
+        this.limits = limits;
+        this.entryListener = entryListener;
+    }
+
+    /**
+     * Sets a listener called in the UI thread once every entry of an archive
+     * has been processed.
+     */
+    public ZipUploadHandler withFinishedListener(
+            SerializableConsumer<ArchiveSummary> finishedListener) {
+        this.finishedListener = finishedListener;
+        return this;
+    }
+
+    /**
+     * Sets a listener called in the UI thread with the reason when an archive
+     * is rejected or cannot be read.
+     */
+    public ZipUploadHandler withFailureListener(
+            SerializableConsumer<String> failureListener) {
+        this.failureListener = failureListener;
+        return this;
+    }
+
+    @Override
+    public void handleUploadRequest(UploadEvent event) throws IOException {
+        UI ui = event.getUI();
+        String fileName = event.getFileName();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long start = System.nanoTime();
+        Extraction extraction = new Extraction();
+        UploadMetrics.Transfer transfer = UploadMetrics.shared()
+                .begin(fileName, event.getFileSize());
+        try (UploadGovernor.Permit permit = UploadGovernor.shared().admit(
+                event.getSession().getSession().getId(), () -> {
+                });
+                CountingInputStream compressed = new CountingInputStream(
+                        permit.throttle(event.getInputStream()), transfer);
+                ZipInputStream zip = new ZipInputStream(compressed)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (++extraction.entries > limits.maxEntries()) {
+                    throw new IOException("The archive has more than "
+                            + limits.maxEntries() + " entries");
+                }
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String name = entry.getName();
+                // The memory is reserved before the entry is read into it
+                long reserved = Math.min(entry.getSize() >= 0
+                        ? Math.min(entry.getSize(), limits.maxEntrySize())
+                        : limits.maxEntrySize(), MEMORY_BUDGET_KB * 1024L);
+                int permits = reserve(reserved);
+                boolean submitted = false;
+                try {
+                    byte[] data = extraction.read(zip, name, compressed,
+                            reserved);
+                    int used = kilobytes(data.length);
+                    MEMORY_BUDGET.release(permits - used);
+                    permits = used;
+                    pending.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            EntryResult result = process(name, data);
+                            ui.access(() -> entryListener.accept(result));
+                        } finally {
+                            MEMORY_BUDGET.release(used);
+                        }
+                    }, PROCESSORS));
+                    submitted = true;
+                } finally {
+                    if (!submitted) {
+                        MEMORY_BUDGET.release(permits);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            ui.access(() -> failureListener.accept(
+                    fileName + " was rejected: " + e.getMessage()));
+            throw e;
+        } finally {
+            transfer.end();
+        }
+
+        long compressedBytes = extraction.compressedBytes;
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> {
+                    ArchiveSummary summary = new ArchiveSummary(fileName,
+                            pending.size(), compressedBytes,
+                            extraction.uncompressedBytes,
+                            System.nanoTime() - start);
+                    ui.access(() -> finishedListener.accept(summary));
+                });
+    }
+
+    private static int reserve(long bytes) throws InterruptedIOException {
+        int permits = kilobytes(bytes);
+        try {
+            MEMORY_BUDGET.acquire(permits);
+            return permits;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting");
+        }
+    }
+
+    /**
+     * Returns the budget taken by an entry of the given size, at least one
+     * kilobyte so that empty entries are counted too.
+     */
+    private static int kilobytes(long bytes) {
+        return (int) Math.max(1, (bytes + 1023) / 1024);
+    }
+
+    /**
+     * Computes the hash, content type and, for text, the line count of an
+     * entry.
+     */
+    private static EntryResult process(String name, byte[] data) {
+        long start = System.nanoTime();
+        String sha256;
+        try {
+            sha256 = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String contentType = URLConnection.guessContentTypeFromName(name);
+        if (contentType == null) {
+            try {
+                contentType = URLConnection.guessContentTypeFromStream(
+                        new ByteArrayInputStream(data));
+            } catch (IOException e) {
+                // Not possible for an in-memory stream
+            }
+        }
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+        int lines = -1;
+        if (contentType.startsWith("text/")) {
+            lines = 0;
+            for (byte b : data) {
+                if (b == '\n') {
+                    lines++;
+                }
+            }
+            if (data.length > 0 && data[data.length - 1] != '\n') {
+                lines++;
+            }
+        }
+        return new EntryResult(name, data.length, contentType, lines, sha256,
+                System.nanoTime() - start);
+    }
+
+    @Override
+    public long getFileSizeMax() {
+        return limits.maxArchiveSize();
+    }
+
+    /**
+     * Limits applied while an archive is extracted.
+     *
+     * @param maxArchiveSize
+     *            the maximum size of the archive itself
+     * @param maxEntries
+     *            the maximum number of entries, directories included
+     * @param maxEntrySize
+     *            the maximum uncompressed size of one entry
+     * @param maxTotalSize
+     *            the maximum uncompressed size of all entries together
+     * @param maxRatio
+     *            the maximum ratio of uncompressed to compressed bytes read so
+     *            far, checked once more than a megabyte has been extracted
+     */
+    public record Limits(long maxArchiveSize, int maxEntries,
+            long maxEntrySize, long maxTotalSize, double maxRatio) {
+
+        /**
+         * Limits suitable for bundles of ordinary documents.
+         */
+        public static final Limits DOCUMENTS = new Limits(
+                500L * 1024 * 1024, 10_000, 16L * 1024 * 1024,
+                1024L * 1024 * 1024, 100);
+    }
+
+    /**
+     * The outcome of processing one entry.
+     */
+    public record EntryResult(String name, long size, String contentType,
+            int lines, String sha256, long durationNanos) {
+    }
+
+    /**
+     * The totals of a fully extracted archive.
+     */
+    public record ArchiveSummary(String fileName, int files,
+            long compressedBytes, long uncompressedBytes,
+            long durationNanos) {
+    }
+
+    /**
+     * The running totals of one archive, checked against the limits.
+     */
+    private final class Extraction {
+
+        private static final long RATIO_THRESHOLD = 1024 * 1024;
+
+        private int entries;
+        private long compressedBytes;
+        private volatile long uncompressedBytes;
+
+        byte[] read(ZipInputStream zip, String name,
+                CountingInputStream compressed, long reserved)
+                throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            long size = 0;
+            int read;
+            while ((read = zip.read(buffer)) > 0) {
+                size += read;
+                uncompressedBytes += read;
+                compressedBytes = compressed.count;
+                if (size > limits.maxEntrySize()) {
+                    throw new IOException(name + " is larger than "
+                            + limits.maxEntrySize() + " bytes");
+                }
+                if (size > reserved) {
+                    throw new IOException(name + " is larger than the "
+                            + reserved + " bytes reserved for it");
+                }
+                if (uncompressedBytes > limits.maxTotalSize()) {
+                    throw new IOException("The contents are larger than "
+                            + limits.maxTotalSize() + " bytes");
+                }
+                if (uncompressedBytes > RATIO_THRESHOLD && uncompressedBytes
+                        > limits.maxRatio() * compressedBytes) {
+                    throw new IOException("The archive is compressed more "
+                            + "than " + limits.maxRatio() + " to 1");
+                }
+                out.write(buffer, 0, read);
+            }
+            compressedBytes = compressed.count;
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Counts the compressed bytes read from the request.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final UploadMetrics.Transfer transfer;
+        private long count;
+
+        CountingInputStream(InputStream in, UploadMetrics.Transfer transfer) {
+            super(in);
+            this.transfer = transfer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+                transfer.add(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length)
+                throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+                transfer.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            transfer.add(skipped);
+            return skipped;
+        }
+    }
+}
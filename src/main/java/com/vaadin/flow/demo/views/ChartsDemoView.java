@@ -15,16 +15,38 @@
  */
 package com.vaadin.flow.demo.views;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.charts.Chart;
 import com.vaadin.flow.component.charts.model.*;
+import com.vaadin.flow.component.charts.model.style.SolidColor;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.radiobutton.RadioButtonGroup;
 import com.vaadin.flow.demo.MainLayout;
+import com.vaadin.flow.demo.data.DensityGrid;
+import com.vaadin.flow.demo.data.Downsampler;
+import com.vaadin.flow.demo.data.MetricStream;
+import com.vaadin.flow.demo.data.PrefetchCache;
+import com.vaadin.flow.demo.data.TimeSeriesStore;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 
 /**
  * Demo view for Charts component.
@@ -33,6 +55,10 @@ import com.vaadin.flow.router.Route;
 @PageTitle("Charts | Vaadin Kitchen Sink")
 public class ChartsDemoView extends VerticalLayout {
 
+    private static final PrefetchCache<HeatmapTile, DensityGrid.Grid> HEATMAP_GRIDS =
+        new PrefetchCache<>(tile -> DensityGrid.bin(ScatterData.SHARED,
+            tile.viewport(), tile.columns(), tile.rows()), 64);
+
     public ChartsDemoView() {
         setSpacing(true);
         setPadding(true);
@@ -52,6 +78,28 @@ public class ChartsDemoView extends VerticalLayout {
         lineChart.setWidthFull();
         addSection("Line Chart", lineChart);
 
+        // Live line chart fed by a shared stream
+        Paragraph viewers = new Paragraph();
+        addSection("Live Line Chart",
+            new Paragraph("One sampler on the server feeds every viewer of this "
+                + "chart. New points are pushed twice per second and the "
+                + "oldest ones shift out."),
+            createLiveChart(MetricStream.shared(), viewers), viewers);
+
+        // Zoomable chart over millions of points
+        addSection("Zoomable Chart (5M Points)",
+            new Paragraph("The server reduces the visible range to about one "
+                + "point per pixel, and again each time you zoom in by "
+                + "dragging over the chart."),
+            createDownsampledChart());
+
+        // Chart over a compressed week of per-second samples
+        addSection("Stored Metrics (7 Days, Per Second)",
+            new Paragraph("A week of per-second samples kept in a compressed "
+                + "in-memory store. Only the blocks overlapping the chosen "
+                + "window are decoded."),
+            createStoredMetricsChart());
+
         // Bar chart
         Chart barChart = new Chart(ChartType.BAR);
         Configuration barConfig = barChart.getConfiguration();
@@ -131,6 +179,572 @@ public class ChartsDemoView extends VerticalLayout {
         donutChart.setHeight("350px");
         donutChart.setWidthFull();
         addSection("Donut Chart", donutChart);
+
+        // Heatmap binned on the server
+        addSection("Heatmap (100M Points)",
+            new Paragraph("The server counts the points falling into each cell "
+                + "of a grid sized to the chart, in parallel, and sends only "
+                + "the cells. Click a cell to zoom into its quarter of the "
+                + "view. Grids are cached per zoom level and shared by all "
+                + "viewers."),
+            createHeatmap());
+
+        // Drill-down loaded one level at a time
+        addSection("Drill-down Chart",
+            new Paragraph("Click a column to drill down from years to quarters, "
+                + "months and days. Each level is computed and sent only when "
+                + "it is opened, and kept in a cache shared by all viewers."),
+            createDrilldownChart());
+    }
+
+    private static Chart createLiveChart(MetricStream stream, Paragraph viewers) {
+        Chart chart = new Chart(ChartType.LINE);
+        Configuration config = chart.getConfiguration();
+        config.setTitle("Load");
+        config.getChart().setAnimation(false);
+        config.getxAxis().setType(AxisType.DATETIME);
+        config.getyAxis().setTitle("%");
+        config.getyAxis().setMin(0);
+        config.getyAxis().setMax(100);
+        config.getLegend().setEnabled(false);
+        PlotOptionsLine options = new PlotOptionsLine();
+        options.setMarker(new Marker(false));
+        config.setPlotOptions(options);
+        DataSeries series = new DataSeries("Load");
+        config.addSeries(series);
+        chart.setHeight("300px");
+        chart.setWidthFull();
+
+        chart.addAttachListener(attach -> {
+            List<DataSeriesItem> items = new ArrayList<>();
+            for (MetricStream.Point point : stream.snapshot()) {
+                items.add(toItem(point));
+            }
+            series.setData(items);
+            Registration registration = stream.subscribe(attach.getUI(), points -> {
+                for (MetricStream.Point point : points) {
+                    series.add(toItem(point), true,
+                        series.size() >= stream.getCapacity());
+                }
+                viewers.setText("Viewers of this stream: "
+                    + stream.getStatistics().subscribers());
+            });
+            chart.addDetachListener(detach -> {
+                registration.remove();
+                detach.unregisterListener();
+            });
+        });
+        return chart;
+    }
+
+    private static com.vaadin.flow.component.Component createDownsampledChart() {
+        Recording recording = Recording.shared();
+        Chart chart = new Chart(ChartType.LINE);
+        Configuration config = chart.getConfiguration();
+        config.setTitle("Sensor Readings");
+        Zooming zooming = new Zooming();
+        zooming.setType(Dimension.X);
+        config.getChart().setZooming(zooming);
+        config.getChart().setAnimation(false);
+        config.getxAxis().setType(AxisType.DATETIME);
+        // The axis always spans the whole recording, so resetting the zoom
+        // returns to it although the series only holds the visible range
+        long first = recording.time(0);
+        long last = recording.time(recording.size() - 1);
+        config.getxAxis().setMin(first);
+        config.getxAxis().setMax(last);
+        config.getLegend().setEnabled(false);
+        PlotOptionsLine options = new PlotOptionsLine();
+        options.setMarker(new Marker(false));
+        options.setAnimation(false);
+        config.setPlotOptions(options);
+        DataSeries series = new DataSeries("Reading");
+        config.addSeries(series);
+        chart.setHeight("300px");
+        chart.setWidthFull();
+
+        RadioButtonGroup<Downsampler.Method> method = new RadioButtonGroup<>();
+        method.setItems(Downsampler.Method.values());
+        method.setItemLabelGenerator(item -> item == Downsampler.Method.LTTB
+            ? "Largest triangle" : "Min/max");
+        method.setValue(Downsampler.Method.LTTB);
+        Span info = new Span();
+
+        // The visible range and the chart width in pixels
+        double[] range = { first, last };
+        int[] width = { 800 };
+        Runnable refresh = () -> {
+            int from = recording.indexAt(range[0]);
+            int to = recording.indexAt(range[1]) + 1;
+            long start = System.nanoTime();
+            int[] indexes = Downsampler.downsample(method.getValue(),
+                recording.values(), from, to, width[0]);
+            long micros = (System.nanoTime() - start) / 1000;
+            List<DataSeriesItem> items = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                items.add(new DataSeriesItem(recording.time(index),
+                    recording.values()[index]));
+            }
+            series.setData(items);
+            series.updateSeries();
+            info.setText(String.format("%,d points shown of %,d in range, reduced in %,d µs",
+                indexes.length, to - from, micros));
+        };
+        chart.addXAxesExtremesSetListener(event -> {
+            range[0] = Double.isNaN(event.getMinimum()) ? first : event.getMinimum();
+            range[1] = Double.isNaN(event.getMaximum()) ? last : event.getMaximum();
+            refresh.run();
+        });
+        method.addValueChangeListener(event -> refresh.run());
+        chart.addAttachListener(event -> chart.getElement()
+            .executeJs("return this.clientWidth")
+            .then(Integer.class, clientWidth -> {
+                width[0] = Math.max(100, clientWidth);
+                refresh.run();
+            }));
+        VerticalLayout layout = new VerticalLayout(method, chart, info);
+        layout.setPadding(false);
+        return layout;
+    }
+
+    private static com.vaadin.flow.component.Component createStoredMetricsChart() {
+        Chart chart = new Chart(ChartType.LINE);
+        Configuration config = chart.getConfiguration();
+        config.setTitle("Active Sessions");
+        config.getChart().setAnimation(false);
+        config.getxAxis().setType(AxisType.DATETIME);
+        config.getLegend().setEnabled(false);
+        PlotOptionsLine options = new PlotOptionsLine();
+        options.setMarker(new Marker(false));
+        options.setAnimation(false);
+        config.setPlotOptions(options);
+        DataSeries series = new DataSeries("Sessions");
+        config.addSeries(series);
+        chart.setHeight("300px");
+        chart.setWidthFull();
+
+        RadioButtonGroup<Duration> window = new RadioButtonGroup<>();
+        window.setItems(Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(7));
+        window.setItemLabelGenerator(duration -> duration.toHours() == 1 ? "Last hour"
+            : duration.toDays() == 1 ? "Last day" : "Last week");
+        Span info = new Span();
+        window.addValueChangeListener(event -> {
+            TimeSeriesStore store = SessionHistory.STORE;
+            long start = System.nanoTime();
+            TimeSeriesStore.Range range = store.query(
+                SessionHistory.END - event.getValue().toMillis(), SessionHistory.END);
+            long micros = (System.nanoTime() - start) / 1000;
+            int[] indexes = Downsampler.minMax(range.values(), 0, range.size(), 800);
+            List<DataSeriesItem> items = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                items.add(new DataSeriesItem(range.times()[index], range.values()[index]));
+            }
+            series.setData(items);
+            series.updateSeries();
+            TimeSeriesStore.Statistics statistics = store.getStatistics();
+            info.setText(String.format("%,d points read in %,d µs. The store holds "
+                + "%,d points in %,d KB (%.2f bytes per point).", range.size(), micros,
+                statistics.points(), statistics.bytes() / 1024,
+                statistics.bytesPerPoint()));
+        });
+        window.setValue(Duration.ofDays(1));
+        VerticalLayout layout = new VerticalLayout(window, chart, info);
+        layout.setPadding(false);
+        return layout;
+    }
+
+    /**
+     * A synthetic week of active session counts, one per second.
+     */
+    private static final class SessionHistory {
+
+        static final long END = Instant.parse("2026-01-08T00:00:00Z").toEpochMilli();
+        static final TimeSeriesStore STORE = generate(7 * 86_400);
+
+        static TimeSeriesStore generate(int seconds) {
+            TimeSeriesStore store = new TimeSeriesStore(4096);
+            SplittableRandom random = new SplittableRandom(42);
+            long start = END - seconds * 1000L;
+            double sessions = 500;
+            for (int i = 0; i < seconds; i++) {
+                // Follows the time of day, changing in about one second of four
+                double target = 500 + 300 * Math.sin(2 * Math.PI * i / 86_400);
+                if (random.nextInt(4) == 0) {
+                    sessions = Math.max(0, sessions + Math.signum(target - sessions)
+                        + random.nextInt(-2, 3));
+                }
+                store.append(start + i * 1000L, sessions);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * A synthetic sensor recording with one reading per second.
+     */
+    private record Recording(long start, double[] values) {
+
+        /**
+         * Returns the recording shared by all sessions, generated on first
+         * use.
+         */
+        static Recording shared() {
+            return Shared.RECORDING;
+        }
+
+        static Recording generate(int size) {
+            double[] values = new double[size];
+            SplittableRandom random = new SplittableRandom(42);
+            double drift = 0;
+            for (int i = 0; i < size; i++) {
+                drift += random.nextDouble(-0.05, 0.05);
+                double daily = 10 * Math.sin(2 * Math.PI * i / 86_400);
+                double spike = random.nextInt(100_000) == 0
+                    ? random.nextDouble(-40, 40) : 0;
+                values[i] = 20 + daily + drift + random.nextGaussian() + spike;
+            }
+            return new Recording(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli(),
+                values);
+        }
+
+        int size() {
+            return values.length;
+        }
+
+        long time(int index) {
+            return start + index * 1000L;
+        }
+
+        int indexAt(double time) {
+            return (int) Math.clamp((time - start) / 1000, 0, values.length - 1);
+        }
+
+        private static final class Shared {
+            static final Recording RECORDING = generate(5_000_000);
+        }
+    }
+
+    private static com.vaadin.flow.component.Component createHeatmap() {
+        Chart chart = new Chart(ChartType.HEATMAP);
+        Configuration config = chart.getConfiguration();
+        config.setTitle("Point Density");
+        config.getChart().setAnimation(false);
+        Labels noLabels = new Labels();
+        noLabels.setEnabled(false);
+        config.getxAxis().setLabels(noLabels);
+        config.getyAxis().setLabels(noLabels);
+        config.getyAxis().setTitle("");
+        ColorAxis colorAxis = new ColorAxis();
+        colorAxis.setType(AxisType.LOGARITHMIC);
+        colorAxis.setMin(1);
+        colorAxis.setMinColor(new SolidColor("#FFFFFF"));
+        colorAxis.setMaxColor(new SolidColor("#1676F3"));
+        config.addColorAxis(colorAxis);
+        PlotOptionsHeatmap options = new PlotOptionsHeatmap();
+        options.setTurboThreshold(0);
+        options.setAnimation(false);
+        config.setPlotOptions(options);
+        HeatSeries series = new HeatSeries("Points");
+        config.addSeries(series);
+        chart.setHeight("400px");
+        chart.setWidthFull();
+
+        Span info = new Span();
+        Button zoomOut = new Button("Zoom out");
+        HeatmapTile[] shown = { new HeatmapTile(0, 0, 0, 64, 32) };
+        Runnable load = () -> {
+            HeatmapTile tile = shown[0];
+            zoomOut.setEnabled(tile.level() > 0);
+            UI ui = UI.getCurrent();
+            CompletableFuture<DensityGrid.Grid> future = HEATMAP_GRIDS.get(tile);
+            boolean cached = future.isDone();
+            if (!cached) {
+                info.setText("Binning 100,000,000 points...");
+            }
+            future.thenAccept(grid -> ui.access(() -> {
+                if (shown[0] != tile) {
+                    return;
+                }
+                List<Number[]> cells = new ArrayList<>();
+                for (int row = 0; row < grid.rows(); row++) {
+                    for (int column = 0; column < grid.columns(); column++) {
+                        long count = grid.count(column, row);
+                        if (count > 0) {
+                            cells.add(new Number[] { column, row, count });
+                        }
+                    }
+                }
+                series.setData(cells.toArray(Number[][]::new));
+                colorAxis.setMax(Math.max(2, grid.max()));
+                chart.drawChart();
+                info.setText(String.format("Zoom level %d: %,d points in %d × %d "
+                    + "cells, %s in %,d ms", tile.level(), grid.points(),
+                    grid.columns(), grid.rows(), cached ? "cached, binned" : "binned",
+                    grid.durationNanos() / 1_000_000));
+            }));
+        };
+        chart.addPointClickListener(event -> {
+            HeatmapTile tile = shown[0];
+            if (tile.level() == HeatmapTile.MAX_LEVEL) {
+                return;
+            }
+            Number[] cell = series.getData()[event.getItemIndex()];
+            // The quarter of the view that holds the center of the cell
+            int quarterX = (cell[0].intValue() * 2 + 1) / tile.columns();
+            int quarterY = (cell[1].intValue() * 2 + 1) / tile.rows();
+            shown[0] = new HeatmapTile(tile.level() + 1, tile.x() * 2 + quarterX,
+                tile.y() * 2 + quarterY, tile.columns(), tile.rows());
+            load.run();
+        });
+        zoomOut.addClickListener(event -> {
+            HeatmapTile tile = shown[0];
+            shown[0] = new HeatmapTile(tile.level() - 1, tile.x() / 2, tile.y() / 2,
+                tile.columns(), tile.rows());
+            load.run();
+        });
+        chart.addAttachListener(event -> chart.getElement()
+            .executeJs("return this.clientWidth")
+            .then(Integer.class, clientWidth -> {
+                // Cells of about 12 pixels
+                int columns = Math.clamp(clientWidth / 12, 16, 160);
+                HeatmapTile tile = shown[0];
+                shown[0] = new HeatmapTile(tile.level(), tile.x(), tile.y(),
+                    columns, 400 / 12);
+                load.run();
+            }));
+        VerticalLayout layout = new VerticalLayout(zoomOut, chart, info);
+        layout.setPadding(false);
+        return layout;
+    }
+
+    /**
+     * One quarter-by-quarter zoom step over the unit square, binned into a
+     * grid of the given size.
+     */
+    private record HeatmapTile(int level, int x, int y, int columns, int rows) {
+
+        static final int MAX_LEVEL = 12;
+
+        DensityGrid.Viewport viewport() {
+            double size = 1.0 / (1 << level);
+            return new DensityGrid.Viewport(x * size, y * size, (x + 1) * size,
+                (y + 1) * size);
+        }
+    }
+
+    /**
+     * A synthetic dataset of 100M points in clusters over the unit square.
+     * Points are generated again from a fixed seed per chunk whenever they
+     * are read, instead of being kept in 800 MB of arrays.
+     */
+    private static final class ScatterData implements DensityGrid.PointSource {
+
+        static final ScatterData SHARED = new ScatterData(100, 1_000_000);
+
+        // Center x, center y, spread and share of the points
+        private static final double[][] CLUSTERS = {
+            { 0.30, 0.35, 0.080, 0.30 },
+            { 0.70, 0.65, 0.050, 0.25 },
+            { 0.62, 0.25, 0.020, 0.15 },
+            { 0.25, 0.78, 0.010, 0.10 },
+            { 0.255, 0.785, 0.001, 0.05 },
+        };
+
+        private final int chunks;
+        private final int pointsPerChunk;
+
+        ScatterData(int chunks, int pointsPerChunk) {
+            this.chunks = chunks;
+            this.pointsPerChunk = pointsPerChunk;
+        }
+
+        @Override
+        public int chunkCount() {
+            return chunks;
+        }
+
+        @Override
+        public void forEachInChunk(int chunk, DensityGrid.PointConsumer consumer) {
+            SplittableRandom random = new SplittableRandom(chunk);
+            for (int i = 0; i < pointsPerChunk; i++) {
+                double pick = random.nextDouble();
+                double[] cluster = null;
+                for (double[] candidate : CLUSTERS) {
+                    pick -= candidate[3];
+                    if (pick < 0) {
+                        cluster = candidate;
+                        break;
+                    }
+                }
+                if (cluster == null) {
+                    // The rest is background noise
+                    consumer.accept(random.nextDouble(), random.nextDouble());
+                } else {
+                    consumer.accept(cluster[0] + cluster[2] * normal(random),
+                        cluster[1] + cluster[2] * normal(random));
+                }
+            }
+        }
+
+        // An approximately normal value, cheaper than nextGaussian()
+        private static double normal(SplittableRandom random) {
+            return (random.nextDouble() + random.nextDouble() + random.nextDouble()
+                + random.nextDouble() - 2) * 1.7320508075688772;
+        }
+    }
+
+    private static com.vaadin.flow.component.Component createDrilldownChart() {
+        Chart chart = new Chart(ChartType.COLUMN);
+        Configuration config = chart.getConfiguration();
+        config.setTitle("Revenue");
+        config.getxAxis().setType(AxisType.CATEGORY);
+        config.getyAxis().setTitle("EUR");
+        config.getLegend().setEnabled(false);
+        chart.setHeight("350px");
+        chart.setWidthFull();
+
+        Span info = new Span();
+        config.addSeries(toSeries(SalesHistory.resolve("")));
+        // The callback runs in the UI thread and must return the series
+        // right away, so it never waits for a load in progress
+        chart.setDrilldownCallback(details -> {
+            Series series = toSeries(SalesHistory.resolve(details.getItem().getId()));
+            PrefetchCache.Statistics statistics = SalesHistory.LEVELS.getStatistics();
+            info.setText(String.format("Levels served from the cache: %,d, computed: %,d",
+                statistics.hits(), statistics.misses()));
+            return series;
+        });
+        VerticalLayout layout = new VerticalLayout(chart, info);
+        layout.setPadding(false);
+        return layout;
+    }
+
+    private static DataSeries toSeries(SalesHistory.Level level) {
+        DataSeries series = new DataSeries(level.title());
+        for (SalesHistory.Bucket bucket : level.buckets()) {
+            DataSeriesItem item = new DataSeriesItem(bucket.label(),
+                Math.round(bucket.revenue()));
+            if (bucket.id() == null) {
+                series.add(item);
+            } else {
+                // Only marks the item; its series is asked for on click
+                item.setId(bucket.id());
+                series.addItemWithDrilldown(item);
+            }
+        }
+        return series;
+    }
+
+    /**
+     * Synthetic daily revenue from 2022 to 2025, summed by year, quarter and
+     * month on demand.
+     */
+    private static final class SalesHistory {
+
+        static final int FIRST_YEAR = 2022;
+        static final int LAST_YEAR = 2025;
+        static final PrefetchCache<String, Level> LEVELS =
+            new PrefetchCache<>(SalesHistory::compute, 256);
+
+        /**
+         * Returns the level under the given id without waiting: the cached
+         * level if it has been loaded, otherwise one computed once in the
+         * calling thread and cached. The levels one step further down are
+         * prefetched, so the next drill-down is usually served from the cache.
+         */
+        static Level resolve(String id) {
+            Level level = LEVELS.getIfPresent(id);
+            if (level == null) {
+                level = compute(id);
+                LEVELS.put(id, level);
+            }
+            List<String> children = new ArrayList<>();
+            for (Bucket bucket : level.buckets()) {
+                if (bucket.id() != null) {
+                    children.add(bucket.id());
+                }
+            }
+            LEVELS.prefetch(children);
+            return level;
+        }
+
+        /**
+         * Computes the buckets under the given id: years for the empty id,
+         * then "2025" to quarters, "2025-Q2" to months and "2025-04" to days.
+         */
+        static Level compute(String id) {
+            List<Bucket> buckets = new ArrayList<>();
+            if (id.isEmpty()) {
+                for (int year = FIRST_YEAR; year <= LAST_YEAR; year++) {
+                    LocalDate start = LocalDate.of(year, 1, 1);
+                    buckets.add(new Bucket(String.valueOf(year), String.valueOf(year),
+                        revenue(start, start.plusYears(1))));
+                }
+                return new Level("Revenue", buckets);
+            }
+            if (id.length() == 4) {
+                int year = Integer.parseInt(id);
+                for (int quarter = 1; quarter <= 4; quarter++) {
+                    LocalDate start = LocalDate.of(year, quarter * 3 - 2, 1);
+                    buckets.add(new Bucket(id + "-Q" + quarter, "Q" + quarter,
+                        revenue(start, start.plusMonths(3))));
+                }
+                return new Level(id, buckets);
+            }
+            if (id.contains("-Q")) {
+                int year = Integer.parseInt(id.substring(0, 4));
+                int quarter = Integer.parseInt(id.substring(6));
+                for (int month = quarter * 3 - 2; month <= quarter * 3; month++) {
+                    LocalDate start = LocalDate.of(year, month, 1);
+                    buckets.add(new Bucket(YearMonth.from(start).toString(),
+                        start.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH),
+                        revenue(start, start.plusMonths(1))));
+                }
+                return new Level(id, buckets);
+            }
+            YearMonth month = YearMonth.parse(id);
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                LocalDate date = month.atDay(day);
+                buckets.add(new Bucket(null, String.valueOf(day),
+                    revenue(date, date.plusDays(1))));
+            }
+            return new Level(id, buckets);
+        }
+
+        private static double revenue(LocalDate from, LocalDate to) {
+            double total = 0;
+            for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+                total += revenue(day);
+            }
+            return total;
+        }
+
+        // The sum of the day's orders, the same every time for the same day
+        private static double revenue(LocalDate day) {
+            SplittableRandom random = new SplittableRandom(day.toEpochDay());
+            double season = 1 + 0.3 * Math.sin(2 * Math.PI * day.getDayOfYear() / 365.0);
+            double weekday = day.getDayOfWeek().getValue() >= 6 ? 0.6 : 1;
+            double growth = 1 + 0.15 * (day.getYear() - FIRST_YEAR);
+            int orders = (int) (500 * season * weekday * growth);
+            double total = 0;
+            for (int i = 0; i < orders; i++) {
+                total += random.nextDouble(5, 200);
+            }
+            return total;
+        }
+
+        record Level(String title, List<Bucket> buckets) {
+        }
+
+        /**
+         * One column, with the id of the level below it, or null for days.
+         */
+        record Bucket(String id, String label, double revenue) {
+        }
+    }
+
+    private static DataSeriesItem toItem(MetricStream.Point point) {
+        return new DataSeriesItem(Instant.ofEpochMilli(point.time()), point.value());
     }
 
     private void addSection(String title, com.vaadin.flow.component.Component... components) {
@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.demo.views;
 
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.combobox.ComboBoxVariant;
 import com.vaadin.flow.component.html.H1;
@@ -23,6 +24,10 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.demo.MainLayout;
 import com.vaadin.flow.demo.Playground;
+import com.vaadin.flow.demo.data.CityCatalogue;
+import com.vaadin.flow.demo.data.FilterResultCache;
+import com.vaadin.flow.demo.data.FuzzyIndex;
+import com.vaadin.flow.demo.data.PrefixIndex;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 
@@ -41,6 +46,8 @@ public class ComboBoxDemoView extends VerticalLayout {
         "France", "Spain", "Italy", "Japan", "China", "Australia", "Brazil"
     );
 
+    private static final FuzzyIndex COUNTRY_INDEX = FuzzyIndex.of(COUNTRIES);
+
     public ComboBoxDemoView() {
         setSpacing(true);
         setPadding(true);
@@ -162,6 +169,48 @@ public class ComboBoxDemoView extends VerticalLayout {
         noAutoOpen.setHelperText("Dropdown won't open on focus");
         playground.addExample("Auto-open Disabled", noAutoOpen);
 
+        // Lazy loading from a shared prefix index, with filter results
+        // cached across sessions
+        FilterResultCache cache = FilterResultCache.shared();
+        PrefixIndex cityIndex = CityCatalogue.getIndex();
+        ComboBox<String> lazy = new ComboBox<>("City");
+        lazy.setItems(cache.fetchCallback("cities", cityIndex::fetch),
+                cache.countCallback("cities", cityIndex::count));
+        lazy.setHelperText("Type the beginning of a name to search "
+                + cityIndex.size() + " cities");
+        playground.addExample("Lazy Loading (1M Cities)", lazy);
+
+        // Typo-tolerant filtering
+        ComboBox<String> fuzzy = new ComboBox<>("Typo-tolerant search");
+        fuzzy.setItems(
+                cache.fetchCallback("countries-fuzzy", COUNTRY_INDEX::fetch),
+                cache.countCallback("countries-fuzzy", COUNTRY_INDEX::count));
+        fuzzy.setHelperText("Try \"Germny\" or \"Jpaan\"");
+        playground.addExample("Typo-tolerant Filtering", fuzzy);
+
+        // Typo-tolerant filtering over a large list
+        FuzzyIndex fuzzyCities = CityCatalogue.getFuzzyIndex();
+        ComboBox<String> fuzzyLarge = new ComboBox<>("City");
+        fuzzyLarge.setItems(
+                cache.fetchCallback("cities-fuzzy", fuzzyCities::fetch),
+                cache.countCallback("cities-fuzzy", fuzzyCities::count));
+        fuzzyLarge.setHelperText("Typos are tolerated from five characters "
+                + "on, try \"bkaofa fals\"");
+        playground.addExample("Typo-tolerant Search (500k Cities)",
+                fuzzyLarge);
+
+        // Shared filter cache statistics
+        Paragraph cacheStats = new Paragraph();
+        Button refreshStats = new Button("Refresh statistics", e -> {
+            FilterResultCache.Statistics stats = cache.getStatistics();
+            cacheStats.setText(String.format(
+                    "%d entries, %d hits, %d misses, %d evictions, hit rate %.1f%%",
+                    stats.size(), stats.hits(), stats.misses(),
+                    stats.evictions(), stats.hitRate() * 100));
+        });
+        refreshStats.click();
+        playground.addExample("Shared Filter Cache", cacheStats, refreshStats);
+
         add(playground);
     }
 }
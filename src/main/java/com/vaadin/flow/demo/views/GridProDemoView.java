@@ -15,20 +15,50 @@
  */
 package com.vaadin.flow.demo.views;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.gridpro.GridPro;
 import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.renderer.TextRenderer;
 import com.vaadin.flow.demo.MainLayout;
 import com.vaadin.flow.demo.Playground;
+import com.vaadin.flow.demo.data.EditJournal;
+import com.vaadin.flow.demo.data.FormulaSheet;
+import com.vaadin.flow.demo.data.TsvPaste;
+import com.vaadin.flow.demo.data.VersionedStore;
+import com.vaadin.flow.demo.data.VersionedStore.UpdateResult;
+import com.vaadin.flow.demo.data.VersionedStore.Versioned;
+import com.vaadin.flow.demo.data.WriteBehindBuffer;
+import com.vaadin.flow.demo.data.WriteBehindBuffer.Cell;
+import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 
 /**
  * Demo view for GridPro component.
@@ -37,6 +67,13 @@ import com.vaadin.flow.router.Route;
 @PageTitle("Grid Pro | Vaadin Kitchen Sink")
 public class GridProDemoView extends VerticalLayout {
 
+    /**
+     * Products shared by all sessions in the concurrent editing example.
+     */
+    private static final VersionedStore<Integer, Product> SHARED_PRODUCTS = new VersionedStore<>(
+            getSampleProducts().stream().collect(
+                    Collectors.toMap(Product::getId, product -> product)));
+
     public GridProDemoView() {
         setSpacing(true);
         setPadding(true);
@@ -177,10 +214,42 @@ public class GridProDemoView extends VerticalLayout {
         singleClick.setWidthFull();
         playground.addExample("Single Click Edit Mode", singleClick);
 
+        // Write-behind editing
+        playground.addExample("Write-behind Editing",
+                new Paragraph("Edits are queued, coalesced per cell and "
+                        + "written to a simulated store in batches. Try a "
+                        + "negative price to see a rejected write, or "
+                        + "focus a cell and paste a block of cells copied "
+                        + "from a spreadsheet. Undo and redo go through the "
+                        + "same queue."),
+                new WriteBehindEditor(generateProducts(1_000)));
+
+        // Concurrent editing
+        playground.addExample("Concurrent Editing",
+                new Paragraph("These products are shared by all users. Open "
+                        + "this page in two windows and edit the same row: "
+                        + "changes show up in the other window as they are "
+                        + "saved. Turn off live updates in one window and "
+                        + "edit a cell that was changed in the other to see "
+                        + "a conflict."),
+                new SharedProductEditor(SHARED_PRODUCTS,
+                        getSampleProducts().stream().map(Product::getId)
+                                .toList()));
+
+        // Computed columns
+        // Each visitor edits their own rows, so the example stays small;
+        // FormulaSheetBenchmark measures the sheet on 100k rows
+        playground.addExample("Computed Columns",
+                new Paragraph("Value and Value incl. VAT are formulas over "
+                        + "Price and Stock. Editing a cell recalculates only "
+                        + "the formulas and category totals that depend on "
+                        + "it."),
+                new ComputedColumnsEditor(generateProducts(1_000)));
+
         add(playground);
     }
 
-    private List<Product> getSampleProducts() {
+    private static List<Product> getSampleProducts() {
         List<Product> products = new ArrayList<>();
         products.add(new Product(1, "Laptop", "Electronics", 999.99, 50, true));
         products.add(new Product(2, "T-Shirt", "Clothing", 29.99, 200, true));
@@ -193,6 +262,20 @@ public class GridProDemoView extends VerticalLayout {
         return products;
     }
 
+    private static List<Product> generateProducts(int count) {
+        String[] categories = { "Electronics", "Clothing", "Food", "Books",
+                "Other" };
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            products.add(new Product(i, "Product " + i,
+                    categories[random.nextInt(categories.length)],
+                    Math.round(random.nextDouble() * 50_000) / 100.0,
+                    random.nextInt(1000), random.nextBoolean()));
+        }
+        return products;
+    }
+
     public static class Product {
         private int id;
         private String name;
@@ -222,5 +305,577 @@ public class GridProDemoView extends VerticalLayout {
         public void setStock(int stock) { this.stock = stock; }
         public boolean isActive() { return active; }
         public void setActive(boolean active) { this.active = active; }
+
+        public Product copy() {
+            return new Product(id, name, category, price, stock, active);
+        }
+    }
+
+    /**
+     * The editable fields of a {@link Product}, used as column keys when edits
+     * are queued and written to the store.
+     */
+    enum ProductField {
+        NAME("Product Name", Product::getName,
+                (product, value) -> product.setName((String) value)),
+        CATEGORY("Category", Product::getCategory,
+                (product, value) -> product.setCategory((String) value)),
+        PRICE("Price", Product::getPrice,
+                (product, value) -> product.setPrice((Double) value)),
+        STOCK("Stock", Product::getStock,
+                (product, value) -> product.setStock((Integer) value)),
+        ACTIVE("Active", Product::isActive,
+                (product, value) -> product.setActive((Boolean) value));
+
+        private final String header;
+        private final ValueProvider<Product, Object> getter;
+        private final BiConsumer<Product, Object> setter;
+
+        ProductField(String header, ValueProvider<Product, Object> getter,
+                BiConsumer<Product, Object> setter) {
+            this.header = header;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        Object get(Product product) {
+            return getter.apply(product);
+        }
+
+        void set(Product product, Object value) {
+            setter.accept(product, value);
+        }
+
+        /**
+         * Converts text entered or pasted into a cell to a value of this
+         * field.
+         *
+         * @throws IllegalArgumentException
+         *             if the text is not valid for this field
+         */
+        Object parse(String text) {
+            try {
+                return switch (this) {
+                    case NAME, CATEGORY -> text.trim();
+                    case PRICE -> Double.valueOf(text.trim());
+                    case STOCK -> Integer.valueOf(text.trim());
+                    case ACTIVE -> switch (text.trim().toLowerCase()) {
+                        case "true", "yes", "1" -> true;
+                        case "false", "no", "0" -> false;
+                        default -> throw new IllegalArgumentException(
+                                "Not a yes/no value: " + text);
+                    };
+                };
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + text);
+            }
+        }
+
+        /**
+         * Returns why the store would reject the value, or null if it is
+         * valid.
+         */
+        String validate(Object value) {
+            return switch (this) {
+                case NAME -> ((String) value).isBlank()
+                        ? "Name must not be empty" : null;
+                case PRICE -> (Double) value < 0
+                        ? "Price must not be negative" : null;
+                case STOCK -> (Integer) value < 0
+                        ? "Stock must not be negative" : null;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * A simulated product database. Every batch costs one round-trip of
+     * latency, and invalid values are rejected cell by cell.
+     */
+    static class ProductStore {
+
+        private static final long ROUND_TRIP_MILLIS = 20;
+
+        private final Map<Integer, Product> rows = new ConcurrentHashMap<>();
+
+        ProductStore(List<Product> products) {
+            for (Product product : products) {
+                rows.put(product.getId(), product.copy());
+            }
+        }
+
+        Map<Cell<Integer>, String> writeBatch(
+                Map<Cell<Integer>, Object> batch) {
+            try {
+                Thread.sleep(ROUND_TRIP_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<Cell<Integer>, String> failures = new HashMap<>();
+            batch.forEach((cell, value) -> {
+                Product row = rows.get(cell.rowId());
+                ProductField field = ProductField.valueOf(cell.column());
+                String error = row == null ? "Product no longer exists"
+                        : field.validate(value);
+                if (error != null) {
+                    failures.put(cell, error);
+                } else {
+                    field.set(row, value);
+                }
+            });
+            return failures;
+        }
+    }
+
+    /**
+     * An editable product grid whose edits go through a write-behind buffer
+     * instead of straight to the store. Cells the store rejects are marked
+     * with a warning sign and the reason as a tooltip. Edits are journaled so
+     * they can be undone and redone.
+     */
+    private static class WriteBehindEditor extends VerticalLayout {
+
+        private static final List<ProductField> COLUMNS = List.of(
+                ProductField.NAME, ProductField.PRICE, ProductField.STOCK);
+        private static final String CLIPBOARD_TEXT = "event.clipboardData.getData('text/plain')";
+
+        private final ProductStore store;
+        private final Map<Integer, Product> items = new LinkedHashMap<>();
+        private final List<Integer> rowIds;
+        private final Map<Cell<Integer>, String> cellErrors = new HashMap<>();
+        private final EditJournal journal = new EditJournal(10_000);
+        private final GridPro<Product> grid = new GridPro<>();
+        private final Button undo = new Button("Undo", e -> undo());
+        private final Button redo = new Button("Redo", e -> redo());
+        private final Paragraph status = new Paragraph();
+
+        private WriteBehindBuffer<Integer, Object> buffer;
+        private Registration flushRegistration;
+        private int anchorRow;
+        private int anchorColumn;
+
+        WriteBehindEditor(List<Product> products) {
+            setPadding(false);
+            store = new ProductStore(products);
+            products.forEach(product -> items.put(product.getId(), product));
+            rowIds = List.copyOf(items.keySet());
+
+            for (ProductField field : COLUMNS) {
+                grid.addEditColumn(field::get, markedRenderer(field, cellErrors))
+                        .text((item, value) -> editText(item, field, value))
+                        .setHeader(field.header)
+                        .setKey(field.name())
+                        .setTooltipGenerator(item -> error(item, field));
+            }
+            grid.setItems(items.values());
+            grid.setHeight("300px");
+            grid.setWidthFull();
+
+            // Remember the focused cell as the anchor for pasted blocks
+            grid.addCellFocusListener(e -> {
+                e.getItem().ifPresent(item -> anchorRow = rowIds
+                        .indexOf(item.getId()));
+                e.getColumn().ifPresent(column -> anchorColumn = COLUMNS
+                        .indexOf(ProductField.valueOf(column.getKey())));
+            });
+            // Pastes into an open cell editor are left to the editor
+            grid.getElement().addEventListener("paste",
+                    e -> paste(e.getEventData().get(CLIPBOARD_TEXT)
+                            .asString()))
+                    .addEventData(CLIPBOARD_TEXT)
+                    .setFilter("!event.target.closest("
+                            + "'vaadin-grid-pro-edit-text-field')");
+
+            Button flush = new Button("Flush now", e -> buffer.flushAsync());
+            add(grid, new HorizontalLayout(undo, redo, flush), status);
+        }
+
+        @Override
+        protected void onAttach(AttachEvent attachEvent) {
+            super.onAttach(attachEvent);
+            UI ui = attachEvent.getUI();
+            buffer = new WriteBehindBuffer<>(store::writeBatch, 50,
+                    Duration.ofSeconds(2));
+            flushRegistration = buffer.addFlushListener(
+                    result -> ui.access(() -> applyFlushResult(result)));
+            updateStatus();
+        }
+
+        @Override
+        protected void onDetach(DetachEvent detachEvent) {
+            flushRegistration.remove();
+            // Writes what is still pending without holding the session lock
+            Thread.startVirtualThread(buffer::close);
+            super.onDetach(detachEvent);
+        }
+
+        private String error(Product item, ProductField field) {
+            return cellErrors.get(new Cell<>(item.getId(), field.name()));
+        }
+
+        private void editText(Product item, ProductField field, String text) {
+            try {
+                edit(item, field, field.parse(text));
+            } catch (IllegalArgumentException e) {
+                cellErrors.put(new Cell<>(item.getId(), field.name()),
+                        e.getMessage());
+                grid.getDataProvider().refreshItem(item);
+            }
+        }
+
+        /**
+         * Converts a pasted block in parallel, queues all of it and flushes
+         * it to the store in the background as one batch, followed by a
+         * single grid refresh.
+         */
+        private void paste(String tsv) {
+            TsvPaste.Result<Integer, Object> result = TsvPaste.parse(tsv,
+                    rowIds, COLUMNS.stream().map(ProductField::name).toList(),
+                    Math.max(anchorRow, 0), Math.max(anchorColumn, 0),
+                    (column, text) -> ProductField.valueOf(column)
+                            .parse(text));
+
+            journal.beginGroup();
+            result.values().forEach((cell, value) -> {
+                ProductField field = ProductField.valueOf(cell.column());
+                Product item = items.get(cell.rowId());
+                journal.record(item.getId(), field.ordinal(), field.get(item),
+                        value);
+                field.set(item, value);
+                cellErrors.remove(cell);
+            });
+            journal.endGroup();
+            cellErrors.putAll(result.errors());
+            buffer.enqueueAll(result.values());
+            buffer.flushAsync();
+            grid.getDataProvider().refreshAll();
+            updateStatus();
+
+            Notification.show("Pasted " + result.values().size() + " cells, "
+                    + result.errors().size() + " invalid, "
+                    + result.skipped() + " outside the grid");
+        }
+
+        private void edit(Product item, ProductField field, Object value) {
+            journal.record(item.getId(), field.ordinal(), field.get(item),
+                    value);
+            write(item, field, value);
+            updateStatus();
+        }
+
+        private void write(Product item, ProductField field, Object value) {
+            field.set(item, value);
+            cellErrors.remove(new Cell<>(item.getId(), field.name()));
+            buffer.enqueue(item.getId(), field.name(), value);
+        }
+
+        private void undo() {
+            restore(journal.undo());
+        }
+
+        private void redo() {
+            restore(journal.redo());
+        }
+
+        /**
+         * Writes journaled values back through the buffer and refreshes only
+         * the rows they belong to.
+         */
+        private void restore(List<EditJournal.Edit> edits) {
+            Set<Product> rows = new HashSet<>();
+            for (EditJournal.Edit edit : edits) {
+                Product item = items.get(edit.rowId());
+                write(item, ProductField.values()[edit.column()],
+                        edit.value());
+                rows.add(item);
+            }
+            refreshRows(rows);
+            updateStatus();
+        }
+
+        /**
+         * Marks the cells the store rejected and clears the marks of those it
+         * accepted. Cells edited again since the batch was taken are left
+         * alone, as the outcome no longer applies to their value.
+         */
+        private void applyFlushResult(
+                WriteBehindBuffer.FlushResult<Integer, Object> result) {
+            result.batch().forEach((cell, value) -> {
+                ProductField field = ProductField.valueOf(cell.column());
+                if (buffer.isPending(cell) || !Objects.equals(value,
+                        field.get(items.get(cell.rowId())))) {
+                    return;
+                }
+                String failure = result.failures().get(cell);
+                if (failure != null) {
+                    cellErrors.put(cell, failure);
+                } else {
+                    cellErrors.remove(cell);
+                }
+            });
+            refreshRows(result.batch().keySet().stream().map(Cell::rowId)
+                    .distinct().map(items::get).toList());
+            updateStatus();
+        }
+
+        /**
+         * Refreshes the given rows, or the whole grid when that is cheaper.
+         */
+        private void refreshRows(Collection<Product> rows) {
+            if (rows.size() > 50) {
+                grid.getDataProvider().refreshAll();
+            } else {
+                rows.forEach(grid.getDataProvider()::refreshItem);
+            }
+        }
+
+        private void updateStatus() {
+            undo.setEnabled(journal.canUndo());
+            redo.setEnabled(journal.canRedo());
+            WriteBehindBuffer.Statistics stats = buffer.getStatistics();
+            status.setText(String.format(
+                    "%d pending, %d coalesced, %d written in %d batches, "
+                            + "%d rejected, %.0f cells/s while flushing",
+                    buffer.getPendingCount(), stats.coalesced(),
+                    stats.written(), stats.batches(), stats.failed(),
+                    stats.cellsPerSecond()));
+        }
+    }
+
+    /**
+     * Renders a product field, prefixed with a warning sign when the cell has
+     * a message in the given map.
+     */
+    private static TextRenderer<Product> markedRenderer(ProductField field,
+            Map<Cell<Integer>, String> messages) {
+        return new TextRenderer<>(item -> {
+            String text = String.valueOf(field.get(item));
+            return messages.containsKey(new Cell<>(item.getId(), field.name()))
+                    ? "\u26A0 " + text
+                    : text;
+        });
+    }
+
+    /**
+     * An editable grid over products shared by all sessions. Each edit is
+     * saved against the row version this editor last saw, so an edit of a
+     * cell someone else has changed meanwhile is rejected and marked instead
+     * of silently overwriting it. Rows changed by others are refreshed one by
+     * one as the changes arrive.
+     */
+    private static class SharedProductEditor extends VerticalLayout {
+
+        private static final List<ProductField> COLUMNS = List.of(
+                ProductField.NAME, ProductField.PRICE, ProductField.STOCK);
+
+        private final VersionedStore<Integer, Product> store;
+        private final Map<Integer, Product> items = new LinkedHashMap<>();
+        private final Map<Integer, Long> versions = new HashMap<>();
+        private final Map<Cell<Integer>, String> conflicts = new HashMap<>();
+        private final Set<Integer> missedRows = new HashSet<>();
+        private final GridPro<Product> grid = new GridPro<>();
+        private final Checkbox liveUpdates = new Checkbox(
+                "Receive live updates", true);
+        private final Paragraph status = new Paragraph();
+
+        private Registration changeRegistration;
+
+        SharedProductEditor(VersionedStore<Integer, Product> store,
+                Collection<Integer> ids) {
+            setPadding(false);
+            this.store = store;
+            for (Integer id : ids) {
+                Versioned<Product> row = store.get(id);
+                items.put(id, row.value().copy());
+                versions.put(id, row.version());
+            }
+
+            for (ProductField field : COLUMNS) {
+                grid.addEditColumn(field::get, markedRenderer(field, conflicts))
+                        .text((item, value) -> edit(item, field, value))
+                        .setHeader(field.header)
+                        .setTooltipGenerator(item -> conflicts.get(
+                                new Cell<>(item.getId(), field.name())));
+            }
+            grid.setItems(items.values());
+            grid.setHeight("300px");
+            grid.setWidthFull();
+
+            liveUpdates.addValueChangeListener(e -> {
+                if (e.getValue()) {
+                    missedRows.forEach(id -> apply(id, store.get(id)));
+                    missedRows.clear();
+                }
+            });
+            add(grid, liveUpdates, status);
+        }
+
+        @Override
+        protected void onAttach(AttachEvent attachEvent) {
+            super.onAttach(attachEvent);
+            UI ui = attachEvent.getUI();
+            changeRegistration = store.addChangeListener(change -> {
+                if (change.origin() != this) {
+                    ui.access(() -> onChange(change.id(), change.row()));
+                }
+            });
+            // Catch up with changes made while detached
+            items.keySet().forEach(id -> apply(id, store.get(id)));
+            updateStatus();
+        }
+
+        @Override
+        protected void onDetach(DetachEvent detachEvent) {
+            changeRegistration.remove();
+            super.onDetach(detachEvent);
+        }
+
+        private void onChange(Integer id, Versioned<Product> row) {
+            if (liveUpdates.getValue()) {
+                apply(id, row);
+            } else {
+                missedRows.add(id);
+            }
+            updateStatus();
+        }
+
+        /**
+         * Shows the given row snapshot unless a newer one is already shown.
+         * Changes may arrive out of order.
+         */
+        private void apply(Integer id, Versioned<Product> row) {
+            if (row.version() <= versions.get(id)) {
+                return;
+            }
+            Product item = items.get(id);
+            for (ProductField field : ProductField.values()) {
+                field.set(item, field.get(row.value()));
+            }
+            versions.put(id, row.version());
+            grid.getDataProvider().refreshItem(item);
+        }
+
+        private void edit(Product item, ProductField field, String text) {
+            Cell<Integer> cell = new Cell<>(item.getId(), field.name());
+            Object value;
+            try {
+                value = field.parse(text);
+            } catch (IllegalArgumentException e) {
+                Notification.show(e.getMessage());
+                return;
+            }
+
+            UpdateResult<Product> result = store.update(item.getId(),
+                    field.name(), versions.get(item.getId()), current -> {
+                        Product next = current.copy();
+                        field.set(next, value);
+                        return next;
+                    }, this);
+            if (result.applied()) {
+                conflicts.remove(cell);
+            } else {
+                conflicts.put(cell, "Your value " + text
+                        + " was not saved: another user changed this to "
+                        + field.get(result.row().value()));
+            }
+            apply(item.getId(), result.row());
+            grid.getDataProvider().refreshItem(item);
+            updateStatus();
+        }
+
+        private void updateStatus() {
+            VersionedStore.Statistics stats = store.getStatistics();
+            status.setText(String.format(
+                    "All users: %d saved edits, %d conflicts, %d merged "
+                            + "retries. %d rows changed while live updates "
+                            + "were off.",
+                    stats.updates(), stats.conflicts(), stats.retries(),
+                    missedRows.size()));
+        }
+    }
+
+    /**
+     * An editable product grid with formula columns and per-category totals
+     * kept up to date by a {@link FormulaSheet}.
+     */
+    private static class ComputedColumnsEditor extends VerticalLayout {
+
+        private static final double VAT = 0.24;
+
+        private final FormulaSheet<Product> sheet = new FormulaSheet<Product>()
+                .input("price", Product::getPrice)
+                .input("stock", Product::getStock)
+                .formula("value", List.of("price", "stock"),
+                        row -> row.get("price") * row.get("stock"))
+                .formula("valueWithVat", List.of("value"),
+                        row -> row.get("value") * (1 + VAT))
+                .sum("categoryValue", "value", Product::getCategory);
+
+        private final GridPro<Product> grid = new GridPro<>();
+        private final Map<String, Span> totals = new LinkedHashMap<>();
+        private final Paragraph status = new Paragraph();
+
+        ComputedColumnsEditor(List<Product> products) {
+            setPadding(false);
+            sheet.load(products);
+
+            grid.addColumn(Product::getName).setHeader("Product Name");
+            grid.addEditColumn(Product::getCategory)
+                    .select((item, value) -> {
+                        item.setCategory(value);
+                        recalculate(item);
+                    }, "Electronics", "Clothing", "Food", "Books", "Other")
+                    .setHeader("Category");
+            grid.addEditColumn(Product::getPrice)
+                    .text((item, value) -> {
+                        item.setPrice(Double.parseDouble(value));
+                        recalculate(item);
+                    })
+                    .setHeader("Price");
+            grid.addEditColumn(Product::getStock)
+                    .text((item, value) -> {
+                        item.setStock(Integer.parseInt(value));
+                        recalculate(item);
+                    })
+                    .setHeader("Stock");
+            grid.addColumn(item -> format(sheet.value(item, "value")))
+                    .setHeader("Value");
+            grid.addColumn(item -> format(sheet.value(item, "valueWithVat")))
+                    .setHeader("Value incl. VAT");
+            grid.setItems(products);
+            grid.setHeight("350px");
+            grid.setWidthFull();
+
+            HorizontalLayout totalsRow = new HorizontalLayout();
+            totalsRow.getStyle().set("flex-wrap", "wrap");
+            for (String category : sheet.groups("categoryValue")) {
+                Span total = new Span();
+                totals.put(category, total);
+                totalsRow.add(total);
+                updateTotal(category);
+            }
+            add(grid, totalsRow, status);
+        }
+
+        private void recalculate(Product item) {
+            long start = System.nanoTime();
+            FormulaSheet.Update update = sheet.update(item);
+            long micros = (System.nanoTime() - start) / 1000;
+
+            update.changedGroups().getOrDefault("categoryValue", Set.of())
+                    .forEach(this::updateTotal);
+            grid.getDataProvider().refreshItem(item);
+            status.setText("Recalculated " + update.recalculatedCells()
+                    + " cells in " + micros + " \u00B5s");
+        }
+
+        private void updateTotal(String category) {
+            totals.get(category).setText(category + ": "
+                    + format(sheet.total("categoryValue", category)));
+        }
+
+        private static String format(double value) {
+            return String.format("%,.2f", value);
+        }
     }
 }
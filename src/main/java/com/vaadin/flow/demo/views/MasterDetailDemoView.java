@@ -16,26 +16,49 @@
 package com.vaadin.flow.demo.views;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.masterdetaillayout.MasterDetailLayout;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.demo.MainLayout;
+import com.vaadin.flow.demo.data.PrefetchCache;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.router.RouteConfiguration;
+import com.vaadin.flow.router.RouteParameters;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 
 /**
- * Demo view for MasterDetailLayout component.
+ * Demo view for MasterDetailLayout component. The optional id parameter
+ * selects a person in the prefetching example, so a selection can be
+ * bookmarked and shared.
  */
-@Route(value = "master-detail", layout = MainLayout.class)
+@Route(value = "master-detail/:id?([0-9]{1,9})", layout = MainLayout.class)
 @PageTitle("Master Detail | Vaadin Kitchen Sink")
-public class MasterDetailDemoView extends VerticalLayout {
+public class MasterDetailDemoView extends VerticalLayout
+        implements BeforeEnterObserver {
+
+    private static final int PREFETCH_DISTANCE = 2;
+
+    // Per UI, since every UI gets its own view instance
+    private final PrefetchCache<Integer, Person> detailCache = new PrefetchCache<>(
+            id -> PersonDirectory.get().load(id), 200);
+    private final Grid<PersonRow> peopleGrid = new Grid<>();
+    private final PersonDetail peopleDetail = new PersonDetail();
 
     public MasterDetailDemoView() {
         setSpacing(true);
@@ -61,20 +84,15 @@ public class MasterDetailDemoView extends VerticalLayout {
 
         Paragraph selectHint = new Paragraph("Select a person from the list to view details.");
         selectHint.addClassNames(LumoUtility.TextColor.SECONDARY);
-        detailView.add(selectHint);
+        PersonDetail detail = new PersonDetail();
+        detail.setVisible(false);
+        detailView.add(selectHint, detail);
 
-        // Selection listener to show details
+        // Selection listener to show details, updating the same components
         grid.addSelectionListener(event -> {
-            event.getFirstSelectedItem().ifPresentOrElse(
-                person -> {
-                    detailView.removeAll();
-                    detailView.add(createDetailContent(person));
-                },
-                () -> {
-                    detailView.removeAll();
-                    detailView.add(selectHint);
-                }
-            );
+            event.getFirstSelectedItem().ifPresent(detail::setPerson);
+            detail.setVisible(event.getFirstSelectedItem().isPresent());
+            selectHint.setVisible(event.getFirstSelectedItem().isEmpty());
         });
 
         layout.setMaster(grid);
@@ -84,6 +102,17 @@ public class MasterDetailDemoView extends VerticalLayout {
 
         addSection("Interactive Master-Detail", layout);
 
+        // Slow backend with prefetching
+        addSection("Prefetched Details (2M People)",
+                new Paragraph("Loading the details of a person takes "
+                        + PersonDirectory.LATENCY_MILLIS + " ms. While one "
+                        + "person is shown, the details of the neighbouring "
+                        + "rows are loaded in the background, so moving "
+                        + "through the list with the arrow keys does not "
+                        + "wait for the backend. The address of the page "
+                        + "links to the selected person."),
+                createPrefetchExample());
+
         // Explanation
         Div explanation = new Div();
         explanation.addClassNames(LumoUtility.Background.CONTRAST_5, LumoUtility.Padding.LARGE,
@@ -121,40 +150,96 @@ public class MasterDetailDemoView extends VerticalLayout {
         addSection("Common Use Cases", useCases);
     }
 
-    private VerticalLayout createDetailContent(Person person) {
-        VerticalLayout content = new VerticalLayout();
-        content.setPadding(false);
-        content.setSpacing(true);
-
-        H3 name = new H3(person.getName());
-        name.addClassNames(LumoUtility.Margin.NONE);
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        event.getRouteParameters().getInteger("id").ifPresent(id -> {
+            // Look up the row by id, then fetch only that record and the
+            // grid page around it, however deep in the list it is
+            int position = PersonDirectory.get().positionOf(id);
+            if (position < 0) {
+                Notification.show("No person with id " + id);
+                return;
+            }
+            peopleGrid.select(PersonDirectory.get().rowAt(position));
+            peopleGrid.scrollToIndex(position);
+        });
+    }
 
-        content.add(name);
-        content.add(createDetailRow("Email:", person.getEmail()));
-        content.add(createDetailRow("Department:", person.getDepartment()));
-        content.add(createDetailRow("Role:", person.getRole()));
-        content.add(createDetailRow("Phone:", person.getPhone()));
-        content.add(createDetailRow("Location:", person.getLocation()));
+    private MasterDetailLayout createPrefetchExample() {
+        PersonDirectory directory = PersonDirectory.get();
+        Grid<PersonRow> grid = peopleGrid;
+        grid.addColumn(PersonRow::name).setHeader("Name");
+        grid.addColumn(PersonRow::department).setHeader("Department");
+        grid.setItems(
+                query -> directory.fetch(query.getOffset(), query.getLimit()),
+                query -> directory.count());
+        // Moving the keyboard focus selects the row, as in a mail client
+        grid.addCellFocusListener(e -> e.getItem().ifPresent(grid::select));
 
-        Paragraph bio = new Paragraph("Bio: " + person.getBio());
-        bio.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.Margin.Top.MEDIUM);
-        content.add(bio);
+        VerticalLayout detailView = new VerticalLayout();
+        detailView.addClassNames(LumoUtility.Padding.MEDIUM);
+        Paragraph selectHint = new Paragraph("Select a person from the list to view details.");
+        selectHint.addClassNames(LumoUtility.TextColor.SECONDARY);
+        PersonDetail detail = peopleDetail;
+        detail.setVisible(false);
+        Paragraph status = new Paragraph();
+        status.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        detailView.add(selectHint, detail, status);
+
+        grid.asSingleSelect().addValueChangeListener(event -> {
+            PersonRow row = event.getValue();
+            if (row != null) {
+                showDetails(grid, detail, row);
+                String url = RouteConfiguration.forSessionScope().getUrl(
+                        MasterDetailDemoView.class,
+                        new RouteParameters("id", String.valueOf(row.id())));
+                UI.getCurrent().getPage().getHistory().replaceState(null, url);
+            }
+            detail.setVisible(row != null);
+            selectHint.setVisible(row == null);
+            PrefetchCache.Statistics stats = detailCache.getStatistics();
+            status.setText(stats.hits() + " shown at once, " + stats.misses()
+                    + " waited for the backend, " + stats.prefetches()
+                    + " prefetched");
+        });
 
-        return content;
+        MasterDetailLayout layout = new MasterDetailLayout();
+        layout.setMaster(grid);
+        layout.setDetail(detailView);
+        layout.setWidthFull();
+        layout.setHeight("500px");
+        return layout;
     }
 
-    private Div createDetailRow(String label, String value) {
-        Div row = new Div();
-
-        Paragraph labelP = new Paragraph(label);
-        labelP.addClassNames(LumoUtility.FontWeight.SEMIBOLD, LumoUtility.Margin.NONE);
-
-        Paragraph valueP = new Paragraph(value);
-        valueP.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Left.SMALL);
+    private void showDetails(Grid<PersonRow> grid, PersonDetail detail,
+            PersonRow row) {
+        CompletableFuture<Person> details = detailCache.get(row.id());
+        Person loaded = details.getNow(null);
+        if (loaded != null) {
+            detail.setPerson(loaded);
+        } else {
+            detail.setLoading(row.name());
+            UI ui = UI.getCurrent();
+            details.whenComplete((person, error) -> ui.access(() -> {
+                // Skip if another row was selected meanwhile
+                if (!row.equals(grid.asSingleSelect().getValue())) {
+                    return;
+                }
+                if (error != null) {
+                    detail.setFailed();
+                } else {
+                    detail.setPerson(person);
+                }
+            }));
+        }
 
-        row.add(labelP, valueP);
-        row.addClassNames(LumoUtility.Display.FLEX, LumoUtility.Gap.SMALL);
-        return row;
+        PersonDirectory directory = PersonDirectory.get();
+        detailCache.prefetch(IntStream
+                .rangeClosed(row.position() - PREFETCH_DISTANCE,
+                        row.position() + PREFETCH_DISTANCE)
+                .filter(position -> position >= 0
+                        && position < directory.count())
+                .mapToObj(directory::idAt).toList());
     }
 
     private List<Person> getSampleData() {
@@ -191,6 +276,193 @@ public class MasterDetailDemoView extends VerticalLayout {
         add(section);
     }
 
+    /**
+     * The detail pane for one person. Its components are created once and
+     * updated in place whenever another person is shown.
+     */
+    private static class PersonDetail extends VerticalLayout {
+
+        private final H3 name = new H3();
+        private final Paragraph email = new Paragraph();
+        private final Paragraph department = new Paragraph();
+        private final Paragraph role = new Paragraph();
+        private final Paragraph phone = new Paragraph();
+        private final Paragraph location = new Paragraph();
+        private final Paragraph bio = new Paragraph();
+
+        PersonDetail() {
+            setPadding(false);
+            setSpacing(true);
+            name.addClassNames(LumoUtility.Margin.NONE);
+            bio.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.Margin.Top.MEDIUM);
+            add(name, createDetailRow("Email:", email),
+                    createDetailRow("Department:", department),
+                    createDetailRow("Role:", role),
+                    createDetailRow("Phone:", phone),
+                    createDetailRow("Location:", location), bio);
+        }
+
+        void setPerson(Person person) {
+            name.setText(person.getName());
+            email.setText(person.getEmail());
+            department.setText(person.getDepartment());
+            role.setText(person.getRole());
+            phone.setText(person.getPhone());
+            location.setText(person.getLocation());
+            bio.setText("Bio: " + person.getBio());
+            showError(false);
+        }
+
+        /**
+         * Shows the name right away while the rest of the details load.
+         */
+        void setLoading(String personName) {
+            name.setText(personName);
+            Stream.of(email, department, role, phone, location)
+                    .forEach(value -> value.setText("\u2026"));
+            bio.setText("Loading\u2026");
+            showError(false);
+        }
+
+        /**
+         * Replaces the loading state when the details could not be loaded.
+         * Failed loads are not cached, so selecting the person again
+         * retries.
+         */
+        void setFailed() {
+            Stream.of(email, department, role, phone, location)
+                    .forEach(value -> value.setText("-"));
+            bio.setText("The details could not be loaded. Select the person "
+                    + "again to retry.");
+            showError(true);
+        }
+
+        private void showError(boolean error) {
+            bio.setClassName(LumoUtility.TextColor.SECONDARY, !error);
+            bio.setClassName(LumoUtility.TextColor.ERROR, error);
+        }
+
+        private static Div createDetailRow(String label, Paragraph valueP) {
+            Div row = new Div();
+
+            Paragraph labelP = new Paragraph(label);
+            labelP.addClassNames(LumoUtility.FontWeight.SEMIBOLD, LumoUtility.Margin.NONE);
+
+            valueP.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Left.SMALL);
+
+            row.add(labelP, valueP);
+            row.addClassNames(LumoUtility.Display.FLEX, LumoUtility.Gap.SMALL);
+            return row;
+        }
+    }
+
+    /**
+     * One row of the people list: just enough to show in the grid and
+     * address the details. The position is the index of the row in the
+     * list.
+     */
+    record PersonRow(int id, int position, String name, String department) {
+    }
+
+    /**
+     * A simulated directory of people. Listing people is fast, but loading
+     * the details of one person costs a slow backend round-trip. People are
+     * generated from their id, and ids are sorted but not contiguous.
+     */
+    static final class PersonDirectory {
+
+        static final int SIZE = 2_000_000;
+        static final long LATENCY_MILLIS = 300;
+
+        private static final String[] FIRST_NAMES = { "John", "Jane", "Bob",
+                "Alice", "Charlie", "Diana", "Erik", "Fatima", "George",
+                "Hanna", "Ivan", "Julia", "Kenji", "Laura", "Mateo", "Nora" };
+        private static final String[] LAST_NAMES = { "Doe", "Smith",
+                "Johnson", "Williams", "Brown", "Miller", "Garcia", "Nguyen",
+                "Virtanen", "Kowalski", "Rossi", "Tanaka", "Silva", "Novak",
+                "Berg", "Okafor", "Murphy" };
+        private static final String[] DEPARTMENTS = { "Engineering",
+                "Marketing", "Sales", "HR", "Finance", "Support" };
+        private static final String[] ROLES = { "Specialist", "Manager",
+                "Director", "Analyst", "Engineer", "Intern" };
+        private static final String[] LOCATIONS = { "New York",
+                "Los Angeles", "Chicago", "Houston", "Seattle", "Boston",
+                "Helsinki", "Berlin" };
+
+        private final int[] ids = new int[SIZE];
+
+        private PersonDirectory() {
+            Random random = new Random(7);
+            int id = 1000;
+            for (int i = 0; i < SIZE; i++) {
+                id += 1 + random.nextInt(3);
+                ids[i] = id;
+            }
+        }
+
+        static PersonDirectory get() {
+            return Holder.DIRECTORY;
+        }
+
+        int count() {
+            return SIZE;
+        }
+
+        int idAt(int position) {
+            return ids[position];
+        }
+
+        /**
+         * Returns the position of the person with the given id, or a
+         * negative number if there is no such person. Ids are sorted, so this
+         * is a binary search.
+         */
+        int positionOf(int id) {
+            return Arrays.binarySearch(ids, id);
+        }
+
+        PersonRow rowAt(int position) {
+            int id = ids[position];
+            return new PersonRow(id, position, name(id),
+                    DEPARTMENTS[id % DEPARTMENTS.length]);
+        }
+
+        Stream<PersonRow> fetch(int offset, int limit) {
+            return IntStream.range(offset, Math.min(offset + limit, SIZE))
+                    .mapToObj(this::rowAt);
+        }
+
+        /**
+         * Loads the full details of a person, blocking for the backend
+         * latency.
+         */
+        Person load(int id) {
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String name = name(id);
+            String department = DEPARTMENTS[id % DEPARTMENTS.length];
+            String location = LOCATIONS[(id / 7) % LOCATIONS.length];
+            return new Person(name,
+                    name.toLowerCase().replace(' ', '.') + "." + id
+                            + "@example.com",
+                    department, department + " " + ROLES[(id / 3) % ROLES.length],
+                    String.format("+1-555-%07d", id % 10_000_000), location,
+                    "Works in " + department + " in " + location + ".");
+        }
+
+        private static String name(int id) {
+            return FIRST_NAMES[id % FIRST_NAMES.length] + " "
+                    + LAST_NAMES[(id / FIRST_NAMES.length) % LAST_NAMES.length];
+        }
+
+        private static final class Holder {
+            private static final PersonDirectory DIRECTORY = new PersonDirectory();
+        }
+    }
+
     public static class Person {
         private String name;
         private String email;
@@ -19,19 +19,26 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.messages.MessageInput;
 import com.vaadin.flow.component.messages.MessageList;
 import com.vaadin.flow.component.messages.MessageListItem;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.demo.MainLayout;
 import com.vaadin.flow.demo.Playground;
+import com.vaadin.flow.demo.data.ChatBroadcaster;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 
 /**
@@ -89,8 +96,10 @@ public class MessagesDemoView extends VerticalLayout {
 
         MessageInput chatInput = new MessageInput();
         chatInput.addSubmitListener(e -> {
-            chatMessages.add(new MessageListItem(e.getValue(), Instant.now(), "You"));
-            chatList.setItems(new ArrayList<>(chatMessages));
+            // Only the new message is sent to the browser
+            chatList.addItem(new MessageListItem(e.getValue(), Instant.now(), "You"));
+            streamReply(chatList, "Thanks for the details! Let me look into that "
+                + "for you. It should only take a moment.");
         });
         chatInput.setWidthFull();
 
@@ -100,6 +109,30 @@ public class MessagesDemoView extends VerticalLayout {
         chatContainer.add(chatList, chatInput);
         playground.addExample("Interactive Chat Demo", chatContainer);
 
+        // Long conversation, kept to a few hundred messages as every visitor
+        // gets their own copy; MessageListBenchmark appends to 10,000
+        int historySize = 500;
+        MessageList longList = new MessageList();
+        List<MessageListItem> history = new ArrayList<>(historySize);
+        Instant start = Instant.now().minus(historySize, ChronoUnit.MINUTES);
+        for (int i = 0; i < historySize; i++) {
+            MessageListItem item = new MessageListItem("Message " + (i + 1),
+                start.plus(i, ChronoUnit.MINUTES), i % 2 == 0 ? "Alice" : "Bob");
+            item.setUserColorIndex(i % 2);
+            history.add(item);
+        }
+        longList.setItems(history);
+        longList.setWidthFull();
+        longList.setHeight("300px");
+        MessageInput longInput = new MessageInput();
+        longInput.addSubmitListener(e ->
+            longList.addItem(new MessageListItem(e.getValue(), Instant.now(), "You")));
+        longInput.setWidthFull();
+        playground.addExample("Long Conversation (500 Messages)", longList, longInput);
+
+        // Chat rooms shared by everyone viewing this page
+        playground.addExample("Chat Rooms", createChatRoom());
+
         // Team discussion example
         MessageList teamList = new MessageList();
         List<MessageListItem> teamMessages = new ArrayList<>();
@@ -173,6 +206,79 @@ public class MessagesDemoView extends VerticalLayout {
         add(playground);
     }
 
+    private static Div createChatRoom() {
+        ChatBroadcaster broadcaster = ChatBroadcaster.shared();
+        String userName = "Guest " + ThreadLocalRandom.current().nextInt(1000, 10_000);
+        Select<String> room = new Select<>();
+        room.setLabel("Room");
+        room.setItems("General", "Random", "Help");
+        room.setValue("General");
+        MessageList roomList = new MessageList();
+        roomList.setWidthFull();
+        roomList.setHeight("300px");
+        MessageInput roomInput = new MessageInput();
+        roomInput.setWidthFull();
+        roomInput.addSubmitListener(e ->
+            broadcaster.publish(room.getValue(), userName, e.getValue()));
+
+        Registration[] subscription = new Registration[1];
+        Runnable join = () -> {
+            if (subscription[0] != null) {
+                subscription[0].remove();
+            }
+            roomList.setItems(broadcaster.history(room.getValue()).stream()
+                .map(MessagesDemoView::toItem).toList());
+            subscription[0] = broadcaster.subscribe(room.getValue(), UI.getCurrent(),
+                batch -> {
+                    if (batch.dropped() > 0) {
+                        roomList.addItem(new MessageListItem(batch.dropped()
+                            + " messages skipped", Instant.now(), "Chat"));
+                    }
+                    batch.messages().forEach(message -> roomList.addItem(toItem(message)));
+                });
+        };
+        room.addValueChangeListener(e -> join.run());
+
+        Div container = new Div(new Span("You are " + userName
+            + ". Open this page in another browser to chat with yourself."),
+            room, roomList, roomInput);
+        container.addClassNames(LumoUtility.Background.CONTRAST_5,
+            LumoUtility.BorderRadius.MEDIUM, LumoUtility.Padding.MEDIUM);
+        container.addAttachListener(e -> join.run());
+        container.addDetachListener(e -> {
+            subscription[0].remove();
+            subscription[0] = null;
+        });
+        return container;
+    }
+
+    private static MessageListItem toItem(ChatBroadcaster.Message message) {
+        MessageListItem item = new MessageListItem(message.text(), message.time(),
+            message.author());
+        item.setUserColorIndex(Math.floorMod(message.author().hashCode(), 7));
+        return item;
+    }
+
+    /**
+     * Adds a reply and reveals it word by word, as a chat bot streaming its
+     * answer would. Each word sends only the appended text.
+     */
+    private static void streamReply(MessageList list, String text) {
+        UI ui = UI.getCurrent();
+        MessageListItem reply = new MessageListItem("", Instant.now(), "Support Agent");
+        list.addItem(reply);
+        Thread.ofVirtual().start(() -> {
+            try {
+                for (String word : text.split(" ")) {
+                    Thread.sleep(80);
+                    ui.access(() -> reply.appendText(word + " "));
+                }
+            } catch (InterruptedException | UIDetachedException e) {
+                // The view was closed, the rest of the reply is not needed
+            }
+        });
+    }
+
     private List<MessageListItem> createBasicMessages() {
         List<MessageListItem> messages = new ArrayList<>();
 
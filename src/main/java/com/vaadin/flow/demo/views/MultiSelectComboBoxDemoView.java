@@ -15,19 +15,29 @@
  */
 package com.vaadin.flow.demo.views;
 
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.MultiSelectComboBox;
 import com.vaadin.flow.component.combobox.MultiSelectComboBoxVariant;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.renderer.TextRenderer;
 import com.vaadin.flow.demo.MainLayout;
 import com.vaadin.flow.demo.Playground;
+import com.vaadin.flow.demo.data.CityCatalogue;
+import com.vaadin.flow.demo.data.FilterResultCache;
+import com.vaadin.flow.demo.data.FuzzyIndex;
+import com.vaadin.flow.demo.data.IndexedSelection;
+import com.vaadin.flow.demo.data.PrefixIndex;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Demo view for MultiSelectComboBox component.
@@ -41,6 +51,14 @@ public class MultiSelectComboBoxDemoView extends VerticalLayout {
         "C++", "C#", "Ruby", "Kotlin", "Swift", "PHP"
     );
 
+    private static final FuzzyIndex SKILL_INDEX = FuzzyIndex.of(SKILLS);
+
+    private static final PrefixIndex TAG_INDEX = PrefixIndex.of(
+        CityCatalogue.generateNames(100_000).stream()
+            .map(name -> name.toLowerCase(Locale.ROOT).replace(' ', '-'))
+            .toList()
+    );
+
     public MultiSelectComboBoxDemoView() {
         setSpacing(true);
         setPadding(true);
@@ -168,6 +186,81 @@ public class MultiSelectComboBoxDemoView extends VerticalLayout {
         invalid.setWidthFull();
         playground.addExample("Invalid State", invalid);
 
+        // Typo-tolerant filtering
+        MultiSelectComboBox<String> fuzzy = new MultiSelectComboBox<>("Typo-tolerant search");
+        FilterResultCache cache = FilterResultCache.shared();
+        fuzzy.setItems(cache.fetchCallback("skills-fuzzy", SKILL_INDEX::fetch),
+                cache.countCallback("skills-fuzzy", SKILL_INDEX::count));
+        fuzzy.setHelperText("Try \"Pyton\" or \"Kotiln\"");
+        fuzzy.setWidthFull();
+        playground.addExample("Typo-tolerant Filtering", fuzzy);
+
+        // Bulk selection over a large tag set. Individually picked tags are
+        // shown as chips, while bulk selections live only in the compact
+        // selection and are summarized as a count.
+        IndexedSelection tagSelection = new IndexedSelection(TAG_INDEX);
+        MultiSelectComboBox<String> tags = new MultiSelectComboBox<>("Tags");
+        tags.setItems(
+                query -> TAG_INDEX.fetch(query.getFilter().orElse(""),
+                        query.getOffset(), query.getLimit()),
+                query -> TAG_INDEX.count(query.getFilter().orElse("")));
+        tags.setRenderer(new TextRenderer<>(tag ->
+                tagSelection.isSelected(tag) ? tag + " (selected)" : tag));
+        tags.setWidthFull();
+
+        TextField tagPrefix = new TextField("Tag prefix");
+        tagPrefix.setPlaceholder("e.g. bako");
+        tagPrefix.setClearButtonVisible(true);
+
+        Paragraph tagSummary = new Paragraph();
+        Runnable updateSummary = () -> tagSummary.setText(tagSelection.count()
+                + " of " + TAG_INDEX.size() + " tags selected");
+        tags.addValueChangeListener(e -> {
+            // Only the picked and removed tags change their label, so the
+            // loaded pages are kept
+            e.getOldValue().stream()
+                    .filter(tag -> !e.getValue().contains(tag))
+                    .forEach(tag -> {
+                        tagSelection.deselect(tag);
+                        tags.getDataProvider().refreshItem(tag);
+                    });
+            e.getValue().stream()
+                    .filter(tag -> !e.getOldValue().contains(tag))
+                    .forEach(tag -> {
+                        tagSelection.select(tag);
+                        tags.getDataProvider().refreshItem(tag);
+                    });
+            updateSummary.run();
+        });
+
+        // Bulk changes can relabel any loaded tag, so they reload the pages
+        Button selectMatching = new Button("Select all matching", e -> {
+            tagSelection.selectMatching(tagPrefix.getValue());
+            updateSummary.run();
+            tags.getDataProvider().refreshAll();
+        });
+        Button deselectMatching = new Button("Deselect all matching", e -> {
+            tagSelection.deselectMatching(tagPrefix.getValue());
+            tags.getValue().stream()
+                    .filter(tag -> !tagSelection.isSelected(tag))
+                    .toList().forEach(tags::deselect);
+            updateSummary.run();
+            tags.getDataProvider().refreshAll();
+        });
+        Button clearTags = new Button("Clear", e -> {
+            tags.clear();
+            tagSelection.clear();
+            updateSummary.run();
+            tags.getDataProvider().refreshAll();
+        });
+        updateSummary.run();
+
+        HorizontalLayout bulkActions = new HorizontalLayout(tagPrefix,
+                selectMatching, deselectMatching, clearTags);
+        bulkActions.setAlignItems(Alignment.BASELINE);
+        playground.addExample("Bulk Selection (100k Tags)", tags,
+                bulkActions, tagSummary);
+
         add(playground);
     }
 }
@@ -15,19 +15,42 @@
  */
 package com.vaadin.flow.demo.views;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.upload.Upload;
-import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
-import com.vaadin.flow.component.upload.receivers.MultiFileMemoryBuffer;
 import com.vaadin.flow.demo.MainLayout;
+import com.vaadin.flow.demo.upload.ChunkedUploadHandler;
+import com.vaadin.flow.demo.upload.ContentStore;
+import com.vaadin.flow.demo.upload.DiskUploadHandler;
+import com.vaadin.flow.demo.upload.ImagePipeline;
+import com.vaadin.flow.demo.upload.UploadGovernor;
+import com.vaadin.flow.demo.upload.UploadMetrics;
+import com.vaadin.flow.demo.upload.ZipUploadHandler;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.streams.UploadHandler;
+import com.vaadin.flow.theme.lumo.LumoUtility;
 
 /**
  * Demo view for Upload component.
@@ -36,6 +59,8 @@ import com.vaadin.flow.router.Route;
 @PageTitle("Upload | Vaadin Kitchen Sink")
 public class UploadDemoView extends VerticalLayout {
 
+    private static final int MEGABYTE = 1024 * 1024;
+
     public UploadDemoView() {
         setSpacing(true);
         setPadding(true);
@@ -44,95 +69,341 @@ public class UploadDemoView extends VerticalLayout {
         add(new H1("Upload Component"));
         add(new Paragraph("The Upload component allows users to upload files."));
 
-        // Basic upload
-        MemoryBuffer buffer = new MemoryBuffer();
-        Upload basic = new Upload(buffer);
-        basic.addSucceededListener(event -> {
-            Notification.show("File uploaded: " + event.getFileName() +
-                " (" + event.getContentLength() + " bytes)")
+        // Basic upload, streamed to a temporary file
+        Upload basic = new Upload(new DiskUploadHandler(10 * MEGABYTE, file -> {
+            Notification.show("File uploaded: " + file.fileName() +
+                " (" + file.size() + " bytes)")
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-        });
+            delete(file);
+        }));
+        basic.setMaxFileSize(10 * MEGABYTE);
         addSection("Basic Upload", basic);
 
+        // Large files streamed to disk with bounded memory
+        Upload large = new Upload(new DiskUploadHandler(2L * 1024 * MEGABYTE, file -> {
+            Notification.show("Received " + file.fileName() + " (" + file.size()
+                + " bytes) in " + file.path())
+                .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            delete(file);
+        }).withFailureListener(message ->
+            Notification.show("Upload failed: " + message)
+                .addThemeVariants(NotificationVariant.LUMO_ERROR))
+          .withQueuedListener(() ->
+            Notification.show("Many uploads are in progress, yours will start shortly")));
+        addSection("Large Files Streamed to Disk (2 GB)",
+            new Paragraph("Files are written to disk as they arrive through "
+                + "a small pooled buffer, so even very large uploads use "
+                + "little server memory."),
+            large);
+
+        // Resumable chunked upload
+        Upload resumable = new Upload();
+        new ChunkedUploadHandler(8 * MEGABYTE, 2L * 1024 * MEGABYTE, file -> {
+            Notification.show("Received " + file.fileName() + " (" + file.size()
+                + " bytes) in " + file.chunks() + " chunks")
+                .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            delete(file.path());
+        }).install(resumable);
+        addSection("Resumable Upload (8 MB Chunks)",
+            new Paragraph("Files are sent in chunks, and failed chunks are "
+                + "retried. If the connection is lost, retry the file to "
+                + "continue from the chunks already received, even after "
+                + "reloading the page."),
+            resumable);
+
+        // Deduplicated uploads
+        Paragraph dedupStats = new Paragraph();
+        Upload dedup = new Upload(new DiskUploadHandler(100 * MEGABYTE, file -> {
+            Notification.show(file.duplicate()
+                ? file.fileName() + " is already stored, not stored again"
+                : file.fileName() + " stored as " + file.sha256().substring(0, 12));
+            dedupStats.setText(formatStatistics(ContentStore.shared().getStatistics()));
+        }).withContentStore(ContentStore.shared()));
+        dedupStats.setText(formatStatistics(ContentStore.shared().getStatistics()));
+        addSection("Deduplicated Uploads",
+            new Paragraph("Files are hashed while they stream in and stored "
+                + "by content, so uploading the same file again takes no "
+                + "extra space. The store is shared by all users."),
+            dedup, dedupStats);
+
+        // ZIP archive extracted while it streams in
+        Grid<ZipUploadHandler.EntryResult> entries = new Grid<>();
+        entries.addColumn(ZipUploadHandler.EntryResult::name).setHeader("Entry")
+            .setFlexGrow(2);
+        entries.addColumn(ZipUploadHandler.EntryResult::contentType).setHeader("Type");
+        entries.addColumn(ZipUploadHandler.EntryResult::size).setHeader("Bytes");
+        entries.addColumn(entry -> entry.lines() < 0 ? "" : entry.lines())
+            .setHeader("Lines");
+        entries.addColumn(entry -> entry.sha256().substring(0, 12))
+            .setHeader("SHA-256");
+        entries.setItems(new ArrayList<>());
+        entries.setHeight("300px");
+        Paragraph archiveSummary = new Paragraph();
+        Upload zip = new Upload(new ZipUploadHandler(ZipUploadHandler.Limits.DOCUMENTS,
+            entry -> entries.getListDataView().addItem(entry))
+            .withFinishedListener(summary -> archiveSummary.setText(String.format(
+                "%s: %d files, %,d bytes extracted from %,d in %d ms",
+                summary.fileName(), summary.files(), summary.uncompressedBytes(),
+                summary.compressedBytes(), summary.durationNanos() / 1_000_000)))
+            .withFailureListener(message -> Notification.show(message)
+                .addThemeVariants(NotificationVariant.LUMO_ERROR)));
+        zip.setAcceptedFileTypes("application/zip", ".zip");
+        addSection("ZIP Archive Extracted While Uploading",
+            new Paragraph("Entries are extracted and processed in parallel as "
+                + "the archive arrives, and appear below as each one is done. "
+                + "Archives with too many entries, too much content or a "
+                + "suspicious compression ratio are rejected."),
+            zip, entries, archiveSummary);
+
         // Multi-file upload
-        MultiFileMemoryBuffer multiBuffer = new MultiFileMemoryBuffer();
-        Upload multiFile = new Upload(multiBuffer);
-        multiFile.addSucceededListener(event -> {
-            Notification.show("File uploaded: " + event.getFileName());
-        });
+        Upload multiFile = new Upload(reportingHandler(10 * MEGABYTE));
+        multiFile.setMaxFileSize(10 * MEGABYTE);
         multiFile.addAllFinishedListener(event -> {
             Notification.show("All files uploaded!")
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
         });
         addSection("Multi-file Upload", multiFile);
 
-        // With file type filter
-        MemoryBuffer imageBuffer = new MemoryBuffer();
-        Upload imageUpload = new Upload(imageBuffer);
+        // With file type filter, processed in the background
+        Div gallery = new Div();
+        gallery.addClassNames(LumoUtility.Display.FLEX, LumoUtility.FlexWrap.WRAP,
+            LumoUtility.Gap.MEDIUM);
+        Paragraph pipelineStats = new Paragraph();
+        Upload imageUpload = new Upload(new DiskUploadHandler(20 * MEGABYTE,
+            file -> processImage(file, gallery, pipelineStats)));
         imageUpload.setAcceptedFileTypes("image/*", ".png", ".jpg", ".jpeg", ".gif");
-        imageUpload.addSucceededListener(event ->
-            Notification.show("Image uploaded: " + event.getFileName()));
-        addSection("Image Upload Only", imageUpload);
-
-        // With max file size
-        MemoryBuffer limitedBuffer = new MemoryBuffer();
-        Upload limited = new Upload(limitedBuffer);
-        limited.setMaxFileSize(1024 * 1024); // 1 MB
+        imageUpload.setMaxFileSize(20 * MEGABYTE);
+        addSection("Image Upload Only",
+            new Paragraph("Thumbnails and image sizes are made in the "
+                + "background and appear here when ready."),
+            imageUpload, gallery, pipelineStats);
+
+        // With max file size, checked in the browser and again on the server
+        Upload limited = new Upload(reportingHandler(MEGABYTE));
+        limited.setMaxFileSize(MEGABYTE);
         limited.addFileRejectedListener(event ->
             Notification.show("File too large: " + event.getErrorMessage())
                 .addThemeVariants(NotificationVariant.LUMO_ERROR));
-        limited.addSucceededListener(event ->
-            Notification.show("File uploaded: " + event.getFileName()));
         addSection("Max File Size (1 MB)", limited);
 
         // With max files limit
-        MultiFileMemoryBuffer limitedMultiBuffer = new MultiFileMemoryBuffer();
-        Upload limitedMulti = new Upload(limitedMultiBuffer);
+        Upload limitedMulti = new Upload(reportingHandler(10 * MEGABYTE));
         limitedMulti.setMaxFiles(3);
-        limitedMulti.addSucceededListener(event ->
-            Notification.show("File uploaded: " + event.getFileName()));
+        limitedMulti.setMaxFileSize(10 * MEGABYTE);
         addSection("Max 3 Files", limitedMulti);
 
         // Drop label customization
-        MemoryBuffer customBuffer = new MemoryBuffer();
-        Upload customLabel = new Upload(customBuffer);
+        Upload customLabel = new Upload(reportingHandler(10 * MEGABYTE));
+        customLabel.setMaxFileSize(10 * MEGABYTE);
         customLabel.setDropLabel(new Paragraph("Drop your documents here"));
-        customLabel.setUploadButton(new com.vaadin.flow.component.button.Button("Choose files..."));
-        customLabel.addSucceededListener(event ->
-            Notification.show("Uploaded: " + event.getFileName()));
+        customLabel.setUploadButton(new Button("Choose files..."));
         addSection("Custom Labels", customLabel);
 
-        // With event listeners
-        MemoryBuffer eventBuffer = new MemoryBuffer();
-        Upload withEvents = new Upload(eventBuffer);
-        withEvents.addStartedListener(event ->
-            Notification.show("Upload started: " + event.getFileName()));
-        withEvents.addProgressListener(event -> {
-            // Progress updates
-        });
-        withEvents.addSucceededListener(event ->
-            Notification.show("Upload succeeded: " + event.getFileName())
-                .addThemeVariants(NotificationVariant.LUMO_SUCCESS));
-        withEvents.addFailedListener(event ->
-            Notification.show("Upload failed: " + event.getFileName())
-                .addThemeVariants(NotificationVariant.LUMO_ERROR));
-        addSection("With Event Listeners", withEvents);
+        // With transfer progress callbacks, one progress bar per file
+        Div progressList = new Div();
+        // Keyed by the request of each upload, as files with the same name
+        // can upload in parallel and a failure reports a new context
+        Map<VaadinRequest, ProgressTracker> trackers = new IdentityHashMap<>();
+        Upload withEvents = new Upload(UploadHandler.toTempFile((metadata, file) ->
+                delete(file.toPath()))
+            .whenStart(context -> {
+                ProgressTracker tracker = new ProgressTracker(context.fileName(),
+                    context.contentLength());
+                trackers.put(context.request(), tracker);
+                progressList.add(tracker);
+                Notification.show("Upload started: " + context.fileName());
+            })
+            .onProgress((context, transferred, total) -> {
+                ProgressTracker tracker = trackers.get(context.request());
+                if (tracker != null) {
+                    tracker.progress(transferred, total);
+                }
+            })
+            .whenComplete((context, success) -> {
+                ProgressTracker tracker = trackers.remove(context.request());
+                if (tracker != null) {
+                    tracker.finished(success);
+                }
+                if (success) {
+                    Notification.show("Upload succeeded: " + context.fileName())
+                        .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+                } else {
+                    Notification.show("Upload failed: " + context.fileName())
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                }
+            }));
+        addSection("With Event Listeners", withEvents, progressList);
+
+        // Node-wide upload metrics
+        Paragraph metrics = new Paragraph();
+        metrics.getStyle().set("white-space", "pre-line");
+        Button refreshMetrics = new Button("Refresh", event -> metrics.setText(
+            formatMetrics(UploadMetrics.shared().snapshot(), UploadGovernor.shared().getStatistics())));
+        refreshMetrics.click();
+        addSection("Upload Load on This Node",
+            new Paragraph("Uploads in progress from all users, with the "
+                + "rate of each and the total ingress rate. At most 16 "
+                + "uploads run at once, sharing a 100 MB/s budget equally "
+                + "between users; further uploads wait up to 30 seconds "
+                + "for their turn."),
+            metrics, refreshMetrics);
 
         // Auto upload disabled
-        MemoryBuffer manualBuffer = new MemoryBuffer();
-        Upload manual = new Upload(manualBuffer);
+        Upload manual = new Upload(reportingHandler(10 * MEGABYTE));
+        manual.setMaxFileSize(10 * MEGABYTE);
         manual.setAutoUpload(false);
-        manual.addSucceededListener(event ->
-            Notification.show("File uploaded: " + event.getFileName()));
         addSection("Manual Upload (Auto-upload disabled)", manual);
 
         // Disabled upload
-        MemoryBuffer disabledBuffer = new MemoryBuffer();
-        Upload disabled = new Upload(disabledBuffer);
+        Upload disabled = new Upload(reportingHandler(10 * MEGABYTE));
         disabled.setEnabled(false);
         addSection("Disabled Upload", disabled);
     }
 
+    /**
+     * Returns a handler that streams files of at most the given size to disk,
+     * reports each one and deletes it.
+     */
+    private static DiskUploadHandler reportingHandler(long maxFileSize) {
+        return new DiskUploadHandler(maxFileSize, file -> {
+            Notification.show("File uploaded: " + file.fileName());
+            delete(file);
+        }).withFailureListener(message ->
+            Notification.show("Upload failed: " + message)
+                .addThemeVariants(NotificationVariant.LUMO_ERROR));
+    }
+
+    private static void processImage(DiskUploadHandler.UploadedFile file,
+            Div gallery, Paragraph pipelineStats) {
+        UI ui = UI.getCurrent();
+        Span status = new Span(file.fileName());
+        status.addClassNames(LumoUtility.TextColor.SECONDARY);
+        gallery.add(status);
+        boolean queued = ImagePipeline.shared().submit(file.fileName(), file.path(),
+            progress -> ui.access(() -> {
+                switch (progress.stage()) {
+                    case QUEUED -> status.setText(progress.fileName() + ": queued");
+                    case PROCESSING -> status.setText(progress.fileName() + ": processing");
+                    case DONE -> gallery.replace(status, createThumbnail(progress.result()));
+                    case FAILED -> status.setText(progress.fileName() + ": " + progress.error());
+                }
+                pipelineStats.setText(formatStatistics(ImagePipeline.shared().getStatistics()));
+            }));
+        if (!queued) {
+            gallery.remove(status);
+            Notification.show("Too many images are being processed, please try again shortly")
+                .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        }
+    }
+
+    private static Div createThumbnail(ImagePipeline.ImageResult result) {
+        Image image = new Image("data:image/jpeg;base64,"
+            + Base64.getEncoder().encodeToString(result.thumbnail()), result.fileName());
+        Span caption = new Span(String.format("%s, %d \u00D7 %d %s", result.fileName(),
+            result.width(), result.height(), result.format()));
+        caption.addClassNames(LumoUtility.FontSize.XSMALL);
+        Div card = new Div(image, new Div(caption));
+        card.setMaxWidth("160px");
+        return card;
+    }
+
+    private static String formatMetrics(UploadMetrics.Snapshot snapshot,
+            UploadGovernor.Statistics governor) {
+        StringBuilder text = new StringBuilder(String.format(
+            "%d uploads active, %.1f MB/s ingress, %d uploads and %.1f MB received in total",
+            snapshot.active().size(), snapshot.ingressBytesPerSecond() / MEGABYTE,
+            snapshot.completed(), (double) snapshot.totalBytes() / MEGABYTE));
+        text.append(String.format(
+            "\n%d running, %d waiting, %d users sharing %.1f MB/s each, "
+                + "%d waited and %d turned away so far",
+            governor.running(), governor.waiting(), governor.sessions(),
+            governor.sessionBytesPerSecond() / MEGABYTE, governor.queued(),
+            governor.rejected()));
+        for (UploadMetrics.TransferStatistics transfer : snapshot.active()) {
+            text.append(String.format("\n%s: %.1f MB%s at %.1f MB/s",
+                transfer.fileName(), (double) transfer.bytes() / MEGABYTE,
+                transfer.expectedBytes() > 0
+                    ? String.format(" of %.1f MB", (double) transfer.expectedBytes() / MEGABYTE)
+                    : "",
+                transfer.bytesPerSecond() / MEGABYTE));
+        }
+        return text.toString();
+    }
+
+    private static String formatStatistics(ImagePipeline.Statistics stats) {
+        return String.format("%d images processed, %d failed, %d waiting, "
+            + "%d turned away, %.1f images/s",
+            stats.processed(), stats.failed(), stats.queued(), stats.rejected(),
+            stats.imagesPerSecond());
+    }
+
+    private static String formatStatistics(ContentStore.Statistics stats) {
+        return String.format("%d files stored, %d duplicates dropped, "
+            + "dedup ratio %.2f, %.1f MB/s received",
+            stats.files(), stats.duplicates(), stats.dedupRatio(),
+            stats.bytesPerSecond() / MEGABYTE);
+    }
+
+    private static void delete(DiskUploadHandler.UploadedFile file) {
+        delete(file.path());
+    }
+
+    private static void delete(Path path) {
+        // The demo only reports the upload, so the file is not kept
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Shows the progress of one file and feeds it to the node's upload
+     * metrics. Progress can be reported many times a second, so the bar is
+     * only updated every {@link #UPDATE_INTERVAL_NANOS}.
+     */
+    private static class ProgressTracker extends Div {
+
+        private static final long UPDATE_INTERVAL_NANOS = 250_000_000;
+
+        private final String fileName;
+        private final ProgressBar bar = new ProgressBar();
+        private final Span label;
+        private final UploadMetrics.Transfer transfer;
+        private long lastUpdate = System.nanoTime();
+
+        ProgressTracker(String fileName, long contentLength) {
+            this.fileName = fileName;
+            this.transfer = UploadMetrics.shared().begin(fileName, contentLength);
+            label = new Span(fileName);
+            bar.setIndeterminate(contentLength <= 0);
+            add(label, bar);
+        }
+
+        void progress(long readBytes, long contentLength) {
+            transfer.progress(readBytes);
+            long now = System.nanoTime();
+            if (now - lastUpdate < UPDATE_INTERVAL_NANOS) {
+                return;
+            }
+            lastUpdate = now;
+            if (contentLength > 0) {
+                bar.setValue((double) readBytes / contentLength);
+            }
+            label.setText(String.format("%s: %.1f MB received", fileName,
+                (double) readBytes / MEGABYTE));
+        }
+
+        void finished(boolean success) {
+            transfer.end();
+            bar.setIndeterminate(false);
+            if (success) {
+                bar.setValue(1);
+            }
+            label.setText(fileName + (success ? ": done" : ": failed"));
+        }
+    }
+
     private void addSection(String title, com.vaadin.flow.component.Component... components) {
         Div section = new Div();
         section.add(new H3(title));
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes to a room with {@link #SUBSCRIBERS} subscribers and measures how
+ * long each message takes to reach each of them.
+ * <p>
+ * Messages are published at a steady rate from one thread. Every subscriber
+ * records when each message arrives, so the latency covers the batching
+ * window, scheduling and the fan-out. A few subscribers are slow: their
+ * deliveries wait {@link #SLOW_DELAY} to run, like a UI whose access queue is
+ * backed up. The harness checks that:
+ * <ul>
+ * <li>every fast subscriber gets every message, once and in order;</li>
+ * <li>the p99 delivery latency stays under {@link #MAX_P99};</li>
+ * <li>slow subscribers are told about the messages they missed, and
+ * everything they got plus what they missed adds up.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class ChatBroadcasterLoad {
+
+    private static final int SUBSCRIBERS = 5000;
+    private static final int SLOW_SUBSCRIBERS = 20;
+    private static final int MESSAGES = 200;
+    private static final Duration PUBLISH_INTERVAL = Duration.ofMillis(20);
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(50);
+    private static final Duration SLOW_DELAY = Duration.ofSeconds(3);
+    private static final int QUEUE_CAPACITY = 100;
+    // The window plus draining every subscriber, whose batches fall due at
+    // the same time after each message
+    private static final Duration MAX_P99 = Duration.ofMillis(500);
+
+    public static void main(String[] args) throws Exception {
+        ChatBroadcaster broadcaster = new ChatBroadcaster(QUEUE_CAPACITY, 50,
+                BATCH_WINDOW);
+        long[] published = new long[MESSAGES];
+        Receiver[] receivers = new Receiver[SUBSCRIBERS + SLOW_SUBSCRIBERS];
+        CountDownLatch done = new CountDownLatch(SUBSCRIBERS);
+        List<ExecutorService> slowUis = new ArrayList<>();
+        for (int i = 0; i < receivers.length; i++) {
+            Receiver receiver = new Receiver(published,
+                    i < SUBSCRIBERS ? done : null);
+            receivers[i] = receiver;
+            Executor delivery = Runnable::run;
+            if (i >= SUBSCRIBERS) {
+                // A UI whose access queue is backed up
+                ExecutorService slowUi = Executors
+                        .newSingleThreadExecutor(Thread.ofVirtual().factory());
+                slowUis.add(slowUi);
+                delivery = command -> slowUi.execute(() -> {
+                    LockSupport.parkNanos(SLOW_DELAY.toNanos());
+                    command.run();
+                });
+            }
+            broadcaster.subscribe("load", delivery, receiver::accept);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            LockSupport.parkNanos(
+                    start + i * PUBLISH_INTERVAL.toNanos() - System.nanoTime());
+            published[i] = System.nanoTime();
+            broadcaster.publish("load", "author", String.valueOf(i));
+        }
+        check(done.await(30, TimeUnit.SECONDS),
+                done.getCount() + " subscribers did not get every message");
+        long durationNanos = System.nanoTime() - start;
+        // Lets the slow subscribers catch up
+        Thread.sleep(2 * SLOW_DELAY.toMillis() + BATCH_WINDOW.toMillis());
+        slowUis.forEach(ExecutorService::shutdownNow);
+
+        long[] latencies = new long[SUBSCRIBERS * MESSAGES];
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            Receiver receiver = receivers[i];
+            check(receiver.error == null, receiver.error);
+            check(receiver.missed == 0,
+                    "a fast subscriber missed " + receiver.missed);
+            System.arraycopy(receiver.latencies, 0, latencies, i * MESSAGES,
+                    MESSAGES);
+        }
+        Arrays.sort(latencies);
+        long slowReceived = 0;
+        long slowMissed = 0;
+        for (int i = SUBSCRIBERS; i < receivers.length; i++) {
+            Receiver receiver = receivers[i];
+            synchronized (receiver) {
+                check(receiver.received + receiver.missed == MESSAGES,
+                        "a slow subscriber lost track: " + receiver.received
+                                + " received, " + receiver.missed
+                                + " missed");
+                slowReceived += receiver.received;
+                slowMissed += receiver.missed;
+            }
+        }
+
+        ChatBroadcaster.Statistics statistics = broadcaster.getStatistics();
+        System.out.printf(
+                "%d messages to %d subscribers in %d ms, %,d deliveries in %,d batches%n",
+                MESSAGES, SUBSCRIBERS + SLOW_SUBSCRIBERS,
+                durationNanos / 1_000_000, statistics.delivered(),
+                statistics.batches());
+        System.out.printf(
+                "latency with a %d ms batching window: median %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                BATCH_WINDOW.toMillis(), percentile(latencies, 50),
+                percentile(latencies, 99), latencies[latencies.length - 1] / 1e6);
+        System.out.printf(
+                "%d slow subscribers: %d messages received, %d reported missed%n",
+                SLOW_SUBSCRIBERS, slowReceived, slowMissed);
+
+        check(percentile(latencies, 99) < MAX_P99.toMillis(), String.format(
+                "p99 latency %.1f ms", percentile(latencies, 99)));
+        check(SLOW_SUBSCRIBERS == 0 || slowMissed > 0,
+                "the slow subscribers missed nothing");
+        check(statistics.dropped() == slowMissed,
+                statistics.dropped() + " dropped, " + slowMissed + " reported");
+        System.out.println("All checks passed");
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        return sorted[(int) ((long) sorted.length * percent / 100)] / 1e6;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * One subscriber, recording the latency of each message it gets.
+     */
+    private static final class Receiver {
+
+        private final long[] published;
+        private final long[] latencies = new long[MESSAGES];
+        private final CountDownLatch done;
+        private int next;
+        private int received;
+        private int missed;
+        private String error;
+
+        Receiver(long[] published, CountDownLatch done) {
+            this.published = published;
+            this.done = done;
+        }
+
+        synchronized void accept(ChatBroadcaster.Batch batch) {
+            long now = System.nanoTime();
+            missed += batch.dropped();
+            next += batch.dropped();
+            for (ChatBroadcaster.Message message : batch.messages()) {
+                int index = Integer.parseInt(message.text());
+                if (done != null && index != next && error == null) {
+                    error = "got message " + index + " instead of " + next;
+                }
+                if (done != null) {
+                    latencies[index] = now - published[index];
+                }
+                next = index + 1;
+                received++;
+            }
+            if (done != null && next == MESSAGES) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures {@link Downsampler} reducing {@link #POINTS} points to
+ * {@link #THRESHOLD}, with each method, on the common pool and on a pool of
+ * one thread.
+ * <p>
+ * The series is a random walk with one spike far above the rest and a flat
+ * stretch. The harness checks that:
+ * <ul>
+ * <li>the kept indexes are in range and strictly ascending, and there are no
+ * more than the threshold;</li>
+ * <li>the spike is kept by both methods, the first and last point by LTTB,
+ * and the lowest point by min/max;</li>
+ * <li>the parallel result is the same as the one computed on one
+ * thread.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class DownsamplerBenchmark {
+
+    private static final int POINTS = 50_000_000;
+    private static final int THRESHOLD = 2_000;
+    private static final int SPIKE = 31_415_926;
+    private static final int FLAT_FROM = 40_000_000;
+    private static final int FLAT_TO = 41_000_000;
+    private static final int WARM_UP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] values = new double[POINTS];
+        double value = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (i < FLAT_FROM || i >= FLAT_TO) {
+                value += random.nextDouble(-1, 1);
+            }
+            values[i] = value;
+        }
+        double highest = Arrays.stream(values).max().orElseThrow();
+        values[SPIKE] = highest + 1_000_000;
+        int lowest = 0;
+        for (int i = 1; i < POINTS; i++) {
+            if (values[i] < values[lowest]) {
+                lowest = i;
+            }
+        }
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        System.out.printf("%,d points to %,d, %d processors%n", POINTS,
+                THRESHOLD, Runtime.getRuntime().availableProcessors());
+        for (Downsampler.Method method : Downsampler.Method.values()) {
+            int[] parallel = null;
+            int[] sequential = null;
+            long[] parallelNanos = new long[ROUNDS];
+            long[] sequentialNanos = new long[ROUNDS];
+            for (int round = -WARM_UP_ROUNDS; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                parallel = Downsampler.downsample(method, values, 0, POINTS,
+                        THRESHOLD);
+                long middle = System.nanoTime();
+                // Parallel streams started in a pool run in that pool
+                sequential = single.submit(() -> Downsampler.downsample(
+                        method, values, 0, POINTS, THRESHOLD)).get();
+                long end = System.nanoTime();
+                if (round >= 0) {
+                    parallelNanos[round] = middle - start;
+                    sequentialNanos[round] = end - middle;
+                }
+            }
+            Arrays.sort(parallelNanos);
+            Arrays.sort(sequentialNanos);
+            System.out.printf(
+                    "%-7s %,5d points kept, median %6.1f ms parallel, %6.1f ms on one thread%n",
+                    method, parallel.length,
+                    parallelNanos[ROUNDS / 2] / 1e6,
+                    sequentialNanos[ROUNDS / 2] / 1e6);
+
+            check(Arrays.equals(parallel, sequential),
+                    method + ": the parallel result differs");
+            check(parallel.length <= THRESHOLD,
+                    method + ": kept " + parallel.length + " points");
+            for (int i = 0; i < parallel.length; i++) {
+                check(parallel[i] >= 0 && parallel[i] < POINTS,
+                        method + ": index " + parallel[i] + " out of range");
+                if (i > 0) {
+                    check(parallel[i] > parallel[i - 1], method + ": index "
+                            + parallel[i] + " after " + parallel[i - 1]);
+                }
+            }
+            check(Arrays.binarySearch(parallel, SPIKE) >= 0,
+                    method + ": the spike was dropped");
+            if (method == Downsampler.Method.LTTB) {
+                check(parallel[0] == 0
+                        && parallel[parallel.length - 1] == POINTS - 1,
+                        method + ": an endpoint was dropped");
+            } else {
+                check(Arrays.binarySearch(parallel, lowest) >= 0,
+                        method + ": the lowest point was dropped");
+            }
+        }
+        single.shutdown();
+        System.out.println("All checks passed");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Measures {@link FormulaSheet} on 100k rows with a chain of five formulas
+ * and two grouped sums: the initial load, single-cell updates at the start
+ * and the end of the chain, and how they compare to recomputing everything.
+ * After the updates, every value and total is checked against a fresh load.
+ * <p>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if an incremental result differs.
+ */
+public class FormulaSheetBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int UPDATES = 100_000;
+    private static final String[] CATEGORIES = { "Tools", "Garden",
+            "Kitchen", "Office", "Toys" };
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Row(CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    1 + random.nextInt(1000), random.nextInt(500),
+                    random.nextInt(100)));
+        }
+
+        FormulaSheet<Row> sheet = sheet();
+        long start = System.nanoTime();
+        sheet.load(rows);
+        long loadNanos = System.nanoTime() - start;
+        System.out.printf("load of %d rows: %.0f ms%n", ROWS,
+                loadNanos / 1e6);
+
+        // Price feeds every formula, the cost only the end of the chain
+        measure("price edit", sheet, rows, random,
+                row -> row.price = 1 + random.nextInt(1000));
+        measure("cost edit", sheet, rows, random,
+                row -> row.cost = random.nextInt(100));
+        measure("category move", sheet, rows, random,
+                row -> row.category = CATEGORIES[random
+                        .nextInt(CATEGORIES.length)]);
+
+        FormulaSheet<Row> fresh = sheet();
+        fresh.load(rows);
+        for (Row row : rows) {
+            for (String column : new String[] { "value", "margin", "profit",
+                    "tax", "net" }) {
+                check(row + " " + column, sheet.value(row, column),
+                        fresh.value(row, column));
+            }
+        }
+        for (String sum : new String[] { "valueByCategory",
+                "netByCategory" }) {
+            for (String group : CATEGORIES) {
+                check(sum + " " + group, sheet.total(sum, group),
+                        fresh.total(sum, group));
+            }
+        }
+        System.out.println("incremental results match a full reload");
+    }
+
+    private static void measure(String name, FormulaSheet<Row> sheet,
+            List<Row> rows, Random random, Consumer<Row> edit) {
+        long[] nanos = new long[UPDATES];
+        long recalculated = 0;
+        for (int i = 0; i < UPDATES; i++) {
+            Row row = rows.get(random.nextInt(rows.size()));
+            edit.accept(row);
+            long start = System.nanoTime();
+            recalculated += sheet.update(row).recalculatedCells();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf(
+                "%s: median %.1f us, p99 %.1f us, %.1f formula cells "
+                        + "recalculated per update%n",
+                name, nanos[UPDATES / 2] / 1e3,
+                nanos[UPDATES * 99 / 100] / 1e3,
+                (double) recalculated / UPDATES);
+    }
+
+    private static FormulaSheet<Row> sheet() {
+        return new FormulaSheet<Row>().input("price", row -> row.price)
+                .input("stock", row -> row.stock)
+                .input("cost", row -> row.cost)
+                .formula("value", List.of("price", "stock"),
+                        row -> row.get("price") * row.get("stock"))
+                .formula("margin", List.of("price", "cost"),
+                        row -> row.get("price") - row.get("cost"))
+                .formula("profit", List.of("margin", "stock"),
+                        row -> row.get("margin") * row.get("stock"))
+                .formula("tax", List.of("profit"),
+                        row -> Math.max(0, row.get("profit")) * 0.2)
+                .formula("net", List.of("profit", "tax"),
+                        row -> row.get("profit") - row.get("tax"))
+                .sum("valueByCategory", "value", row -> row.category)
+                .sum("netByCategory", "net", row -> row.category);
+    }
+
+    private static void check(String what, double actual, double expected) {
+        if (Math.abs(actual - expected) > 1e-6 * Math.max(1,
+                Math.abs(expected))) {
+            throw new AssertionError(
+                    what + " is " + actual + ", expected " + expected);
+        }
+    }
+
+    private static final class Row {
+        private String category;
+        private double price;
+        private double stock;
+        private double cost;
+
+        private Row(String category, double price, double stock,
+                double cost) {
+            this.category = category;
+            this.price = price;
+            this.stock = stock;
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Types queries with typos into the {@link FuzzyIndex} of the combo box
+ * example, one character at a time, and measures the time per keystroke.
+ * <p>
+ * When the filter of a lazy combo box changes, it asks for the count and
+ * then the first page, which share one ranking of the query, so a keystroke
+ * costs one {@link FuzzyIndex#search(String, int)}. The harness checks that:
+ * <ul>
+ * <li>the median time of every keystroke stays under {@link #BUDGET_MILLIS};
+ * </li>
+ * <li>every query finds the same entries as comparing it with every entry
+ * in the list.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class FuzzyIndexBenchmark {
+
+    private static final String[] QUERIES = { "kaofa", "bkaofa fals",
+            "bakofa", "bakafa falls", "mokaso heights", "dugelu springs" };
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 41;
+    private static final int PAGE_SIZE = 50;
+    private static final double BUDGET_MILLIS = 5;
+
+    public static void main(String[] args) {
+        FuzzyIndex index = CityCatalogue.getFuzzyIndex();
+        List<String> names = CityCatalogue.generateNames(index.size());
+        System.out.printf("%,d entries%n", index.size());
+
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (String query : QUERIES) {
+                for (int length = 1; length <= query.length(); length++) {
+                    index.search(query.substring(0, length),
+                            FuzzyIndex.DEFAULT_MAX_RESULTS);
+                }
+            }
+        }
+
+        double worst = 0;
+        for (String query : QUERIES) {
+            long[][] nanos = new long[query.length()][ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int length = 1; length <= query.length(); length++) {
+                    String typed = query.substring(0, length);
+                    long start = System.nanoTime();
+                    index.search(typed, FuzzyIndex.DEFAULT_MAX_RESULTS);
+                    nanos[length - 1][round] = System.nanoTime() - start;
+                }
+            }
+            double slowest = 0;
+            for (long[] keystroke : nanos) {
+                Arrays.sort(keystroke);
+                slowest = Math.max(slowest, keystroke[ROUNDS / 2] / 1e6);
+            }
+            worst = Math.max(worst, slowest);
+            System.out.printf(
+                    "%-16s %3d results, %d edits, slowest keystroke median %5.2f ms%n",
+                    "\"" + query + "\"", index.count(query),
+                    index.maxEdits(query), slowest);
+        }
+        check(worst < BUDGET_MILLIS, String.format(
+                "a keystroke took %.2f ms, over the budget", worst));
+
+        for (String query : QUERIES) {
+            checkMatches(index, names, query);
+            List<String> page = index.fetch(query, 0, PAGE_SIZE).toList();
+            check(page.equals(index.search(query, PAGE_SIZE)),
+                    "\"" + query + "\" fetched another page");
+        }
+        System.out.println("All checks passed");
+    }
+
+    private static void checkMatches(FuzzyIndex index, List<String> names,
+            String query) {
+        int maxEdits = index.maxEdits(query);
+        FuzzyIndex.Pattern pattern = new FuzzyIndex.Pattern(
+                query.toLowerCase(Locale.ROOT));
+        Set<String> expected = new HashSet<>();
+        for (String name : names) {
+            if (pattern.distance(name.toLowerCase(Locale.ROOT),
+                    maxEdits) <= maxEdits) {
+                expected.add(name);
+            }
+        }
+        Set<String> found = new HashSet<>(
+                index.search(query, Integer.MAX_VALUE));
+        check(found.equals(expected), "\"" + query + "\" found "
+                + found.size() + " entries instead of " + expected.size());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Has {@link #VIEWERS} viewers watch one {@link MetricStream} and compares
+ * the cost with giving each viewer a timer of its own, as a view that
+ * samples the metric itself would.
+ * <p>
+ * Both setups run for {@link #RUN} with the same sample and frame intervals.
+ * For each, the harness reports the threads added and the CPU time taken by
+ * all threads, from {@link ThreadMXBean}. A few viewers of the stream are
+ * slow: their deliveries wait longer than a frame to run, like a UI whose
+ * access queue is backed up. The harness checks that:
+ * <ul>
+ * <li>the stream adds at most {@link #MAX_STREAM_THREADS} threads, while the
+ * timers add one per viewer;</li>
+ * <li>the stream takes less CPU time than the timers;</li>
+ * <li>every viewer, slow or not, gets consecutive samples without gaps, up
+ * to the end of the run.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class MetricStreamLoad {
+
+    private static final int VIEWERS = 1000;
+    private static final int SLOW_VIEWERS = 10;
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(20);
+    private static final Duration FRAME_INTERVAL = Duration.ofMillis(100);
+    private static final Duration SLOW_DELAY = Duration.ofMillis(250);
+    private static final Duration RUN = Duration.ofSeconds(5);
+    // The scheduler, plus carrier threads for the slow viewers
+    private static final int MAX_STREAM_THREADS = 4;
+
+    private static final ThreadMXBean THREADS = ManagementFactory
+            .getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        check(THREADS.isThreadCpuTimeSupported(),
+                "thread CPU time is not supported");
+        THREADS.setThreadCpuTimeEnabled(true);
+
+        Usage stream = null;
+        Usage timers = null;
+        // The first round warms up
+        for (int round = 0; round < 2; round++) {
+            stream = runStream();
+            timers = runTimers();
+        }
+        System.out.printf("%d viewers for %d s, a sample every %d ms, "
+                + "a frame every %d ms:%n", VIEWERS, RUN.toSeconds(),
+                SAMPLE_INTERVAL.toMillis(), FRAME_INTERVAL.toMillis());
+        System.out.printf("one stream:       %4d threads added, %6d ms CPU%n",
+                stream.threads(), stream.cpuNanos() / 1_000_000);
+        System.out.printf("one timer each:   %4d threads added, %6d ms CPU%n",
+                timers.threads(), timers.cpuNanos() / 1_000_000);
+
+        check(stream.threads() <= MAX_STREAM_THREADS,
+                "the stream added " + stream.threads() + " threads");
+        check(timers.threads() >= VIEWERS,
+                "the timers added only " + timers.threads() + " threads");
+        check(stream.cpuNanos() < timers.cpuNanos(), String.format(
+                "the stream took %d ms of CPU, the timers %d ms",
+                stream.cpuNanos() / 1_000_000, timers.cpuNanos() / 1_000_000));
+        System.out.println("All checks passed");
+    }
+
+    private static Usage runStream() throws Exception {
+        MetricStream metric = new MetricStream(600, SAMPLE_INTERVAL,
+                FRAME_INTERVAL, MetricStream.randomWalk(50, 2, 0, 100));
+        int threadsBefore = THREADS.getThreadCount();
+        long cpuBefore = cpuTime();
+
+        Viewer[] viewers = new Viewer[VIEWERS];
+        List<MetricStream.Subscriber> subscribers = new ArrayList<>();
+        List<ExecutorService> slowUis = new ArrayList<>();
+        for (int i = 0; i < VIEWERS; i++) {
+            Viewer viewer = new Viewer();
+            viewers[i] = viewer;
+            if (i < VIEWERS - SLOW_VIEWERS) {
+                subscribers.add(metric.subscribe(Runnable::run,
+                        viewer::accept));
+            } else {
+                // A UI whose access queue is backed up
+                ExecutorService slowUi = Executors
+                        .newSingleThreadExecutor(Thread.ofVirtual().factory());
+                slowUis.add(slowUi);
+                subscribers.add(metric.subscribe(
+                        command -> slowUi.execute(() -> {
+                            LockSupport.parkNanos(SLOW_DELAY.toNanos());
+                            command.run();
+                        }), viewer::accept));
+            }
+        }
+        Thread.sleep(RUN.toMillis());
+        int threads = THREADS.getThreadCount() - threadsBefore;
+        long cpuNanos = cpuTime() - cpuBefore;
+        long target = metric.getStatistics().samples() - 1;
+        // Lets the slow viewers take what they missed in one more frame
+        Thread.sleep(SLOW_DELAY.toMillis() + 2 * FRAME_INTERVAL.toMillis());
+        subscribers.forEach(metric::unsubscribe);
+        slowUis.forEach(ExecutorService::shutdownNow);
+
+        for (Viewer viewer : viewers) {
+            synchronized (viewer) {
+                check(viewer.error == null, viewer.error);
+                check(viewer.last >= target, "a viewer stopped at sample "
+                        + viewer.last + " of " + target);
+            }
+        }
+        check(metric.getStatistics().skipped() > 0,
+                "no slow viewer was skipped");
+        return new Usage(threads, cpuNanos);
+    }
+
+    private static Usage runTimers() throws Exception {
+        int threadsBefore = THREADS.getThreadCount();
+        long cpuBefore = cpuTime();
+
+        List<ScheduledExecutorService> timers = new ArrayList<>();
+        for (int i = 0; i < VIEWERS; i++) {
+            Viewer viewer = new Viewer();
+            DoubleSupplier source = MetricStream.randomWalk(50, 2, 0, 100);
+            List<MetricStream.Point> pending = new ArrayList<>();
+            long[] sequence = { 0 };
+            ScheduledExecutorService timer = Executors
+                    .newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                            .daemon().name("viewer-timer").factory());
+            timers.add(timer);
+            timer.scheduleAtFixedRate(
+                    () -> pending.add(new MetricStream.Point(sequence[0]++,
+                            System.currentTimeMillis(),
+                            source.getAsDouble())),
+                    0, SAMPLE_INTERVAL.toNanos(), TimeUnit.NANOSECONDS);
+            timer.scheduleAtFixedRate(() -> {
+                if (!pending.isEmpty()) {
+                    viewer.accept(List.copyOf(pending));
+                    pending.clear();
+                }
+            }, FRAME_INTERVAL.toNanos(), FRAME_INTERVAL.toNanos(),
+                    TimeUnit.NANOSECONDS);
+        }
+        Thread.sleep(RUN.toMillis());
+        int threads = THREADS.getThreadCount() - threadsBefore;
+        long cpuNanos = cpuTime() - cpuBefore;
+        for (ScheduledExecutorService timer : timers) {
+            timer.shutdownNow();
+            timer.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        // The threads of terminated timers can take a moment to exit, and
+        // would be counted against the next run
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (THREADS.getThreadCount() > threadsBefore
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return new Usage(threads, cpuNanos);
+    }
+
+    /**
+     * Returns the CPU time taken so far by the live threads.
+     */
+    private static long cpuTime() {
+        long total = 0;
+        for (long id : THREADS.getAllThreadIds()) {
+            total += Math.max(0, THREADS.getThreadCpuTime(id));
+        }
+        return total;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private record Usage(int threads, long cpuNanos) {
+    }
+
+    /**
+     * One viewer, checking that the samples it gets follow each other.
+     */
+    private static final class Viewer {
+
+        private long last = -1;
+        private String error;
+
+        synchronized void accept(List<MetricStream.Point> points) {
+            for (MetricStream.Point point : points) {
+                if (last >= 0 && point.sequence() != last + 1
+                        && error == null) {
+                    error = "got sample " + point.sequence() + " after "
+                            + last;
+                }
+                last = point.sequence();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Measures {@link TimeSeriesStore} on a week of per-second points: the
+ * memory per point for series of different shapes, and the latency of
+ * range queries of an hour, a day and the whole week.
+ * <p>
+ * Every series is read back whole and compared bit for bit with what was
+ * appended, and every query result is compared with the expected slice.
+ * The slowly changing integer series, the kind the store is meant for, must
+ * take less than {@link #MAX_COUNTER_BYTES_PER_POINT} bytes per point.
+ * <p>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class TimeSeriesStoreBenchmark {
+
+    private static final int POINTS = 7 * 86_400;
+    private static final int POINTS_PER_BLOCK = 4096;
+    private static final long START = 1_767_225_600_000L;
+    private static final int QUERIES = 200;
+    private static final double MAX_COUNTER_BYTES_PER_POINT = 2;
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] times = new long[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            times[i] = START + i * 1000L;
+        }
+        long[] jittered = new long[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            // A late sample now and then, as from a busy scheduler
+            jittered[i] = times[i]
+                    + (random.nextInt(20) == 0 ? random.nextInt(1, 50) : 0);
+        }
+
+        double[] counter = new double[POINTS];
+        double[] gauge = new double[POINTS];
+        double[] noise = new double[POINTS];
+        double sessions = 500;
+        double load = 50;
+        for (int i = 0; i < POINTS; i++) {
+            double target = 500 + 300 * Math.sin(2 * Math.PI * i / 86_400);
+            if (random.nextInt(4) == 0) {
+                sessions = Math.max(0, sessions + Math.signum(target - sessions)
+                        + random.nextInt(-2, 3));
+            }
+            counter[i] = sessions;
+            load = Math.clamp(load + random.nextDouble(-2, 2), 0, 100);
+            gauge[i] = Math.round(load * 100) / 100.0;
+            noise[i] = random.nextGaussian();
+        }
+
+        System.out.printf("%d points per series, raw size 16 bytes per point%n",
+                POINTS);
+        TimeSeriesStore counters = measureMemory("integer counter", times,
+                counter);
+        double counterBytes = counters.getStatistics().bytesPerPoint();
+        measureMemory("integer counter, jittered times", jittered, counter);
+        measureMemory("gauge, two decimals", times, gauge);
+        measureMemory("gaussian noise", times, noise);
+        check(counterBytes < MAX_COUNTER_BYTES_PER_POINT, String.format(
+                "the counter takes %.2f bytes per point", counterBytes));
+
+        measureQueries(counters, times, counter, "hour", 3_600_000, random);
+        measureQueries(counters, times, counter, "day", 86_400_000, random);
+        measureQueries(counters, times, counter, "week",
+                7 * 86_400_000L, random);
+        System.out.println("All checks passed");
+    }
+
+    private static TimeSeriesStore measureMemory(String name, long[] times,
+            double[] values) {
+        TimeSeriesStore store = new TimeSeriesStore(POINTS_PER_BLOCK);
+        long start = System.nanoTime();
+        for (int i = 0; i < times.length; i++) {
+            store.append(times[i], values[i]);
+        }
+        long appendNanos = System.nanoTime() - start;
+        TimeSeriesStore.Statistics statistics = store.getStatistics();
+        System.out.printf(
+                "%-32s %6.2f bytes per point, %5.1fx smaller, %4.0f ns per append%n",
+                name + ":", statistics.bytesPerPoint(),
+                16 / statistics.bytesPerPoint(),
+                (double) appendNanos / times.length);
+
+        TimeSeriesStore.Range all = store.query(Long.MIN_VALUE,
+                Long.MAX_VALUE);
+        check(Arrays.equals(all.times(), times), name + ": times differ");
+        for (int i = 0; i < values.length; i++) {
+            check(Double.doubleToRawLongBits(all.values()[i]) == Double
+                    .doubleToRawLongBits(values[i]),
+                    name + ": value " + i + " differs");
+        }
+        return store;
+    }
+
+    private static void measureQueries(TimeSeriesStore store, long[] times,
+            double[] values, String window, long length,
+            SplittableRandom random) {
+        long span = times[times.length - 1] + 1 - times[0];
+        for (int i = 0; i < QUERIES; i++) {
+            // Warm-up
+            store.query(times[0] + random.nextLong(span), times[0] + span);
+        }
+        long[] nanos = new long[QUERIES];
+        long points = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long from = times[0]
+                    + (length >= span ? 0 : random.nextLong(span - length));
+            long to = from + length;
+            long start = System.nanoTime();
+            TimeSeriesStore.Range range = store.query(from, to);
+            nanos[i] = System.nanoTime() - start;
+            points += range.size();
+
+            int first = lowerBound(times, from);
+            int last = lowerBound(times, to);
+            check(range.size() == last - first, window + " query of " + from
+                    + " returned " + range.size() + " points");
+            check(range.size() == 0 || range.times()[0] == times[first]
+                    && range.values()[range.size() - 1] == values[last - 1],
+                    window + " query of " + from + " returned other points");
+        }
+        Arrays.sort(nanos);
+        System.out.printf(
+                "%-5s queries: %6d points, median %6.0f µs, p99 %6.0f µs, %3.0f M points/s%n",
+                window, points / QUERIES, nanos[QUERIES / 2] / 1e3,
+                nanos[QUERIES * 99 / 100] / 1e3,
+                points * 1e3 / Arrays.stream(nanos).sum());
+    }
+
+    private static int lowerBound(long[] times, long time) {
+        int index = Arrays.binarySearch(times, time);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
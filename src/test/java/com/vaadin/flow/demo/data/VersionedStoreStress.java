@@ -0,0 +1,243 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hammers a {@link VersionedStore} with concurrent editors and readers on a
+ * few hot rows and checks that compare-and-set never loses or duplicates an
+ * update.
+ * <p>
+ * Editors increment one cell at a time, some against a fresh snapshot and
+ * some against a stale one, so both merges and conflicts happen often.
+ * Afterwards, every cell must equal the number of increments applied to it,
+ * every rejected update must have lost to a newer write of the same cell,
+ * each row version must have been announced exactly once, and no reader may
+ * have seen a snapshot that goes back in time or is inconsistent.
+ * <p>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception on the first violation.
+ */
+public class VersionedStoreStress {
+
+    private static final int ROWS = 8;
+    private static final String[] COLUMNS = { "a", "b", "c" };
+    private static final int EDITORS = 16;
+    private static final int READERS = 4;
+    private static final int UPDATES_PER_EDITOR = 50_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<Integer, Counters> initial = new HashMap<>();
+        for (int id = 0; id < ROWS; id++) {
+            initial.put(id, new Counters(0, 0, 0));
+        }
+        VersionedStore<Integer, Counters> store = new VersionedStore<>(
+                initial);
+
+        Map<Integer, BitSet> announced = new ConcurrentHashMap<>();
+        store.addChangeListener(change -> {
+            BitSet versions = announced.computeIfAbsent(change.id(),
+                    id -> new BitSet());
+            synchronized (versions) {
+                int version = (int) change.row().version();
+                if (versions.get(version)) {
+                    fail("Version " + version + " of row " + change.id()
+                            + " announced twice");
+                }
+                versions.set(version);
+            }
+        });
+
+        AtomicLongArray applied = new AtomicLongArray(ROWS * COLUMNS.length);
+        LongAdder rejected = new LongAdder();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean editing = new AtomicBoolean(true);
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Thread> editors = new ArrayList<>();
+        for (int i = 0; i < EDITORS; i++) {
+            editors.add(start(failures, () -> {
+                await(go);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Map<Integer, Long> seen = new HashMap<>();
+                for (int n = 0; n < UPDATES_PER_EDITOR; n++) {
+                    int id = random.nextInt(ROWS);
+                    int column = random.nextInt(COLUMNS.length);
+                    // Half of the edits use the version this editor saw
+                    // last time, which may be long outdated
+                    long base = random.nextBoolean()
+                            ? seen.getOrDefault(id, 1L)
+                            : store.get(id).version();
+                    VersionedStore.UpdateResult<Counters> result = store
+                            .update(id, COLUMNS[column], base,
+                                    row -> row.increment(column), null);
+                    if (result.applied()) {
+                        applied.incrementAndGet(id * COLUMNS.length + column);
+                    } else {
+                        rejected.increment();
+                        if (result.row().columnVersion(
+                                COLUMNS[column]) <= base) {
+                            fail("Update of row " + id + " rejected without"
+                                    + " a newer write of " + COLUMNS[column]);
+                        }
+                    }
+                    seen.put(id, result.row().version());
+                }
+            }));
+        }
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            readers.add(start(failures, () -> {
+                await(go);
+                long[] last = new long[ROWS];
+                while (editing.get()) {
+                    for (int id = 0; id < ROWS; id++) {
+                        VersionedStore.Versioned<Counters> row = store.get(id);
+                        if (row.version() < last[id]) {
+                            fail("Row " + id + " went back from version "
+                                    + last[id] + " to " + row.version());
+                        }
+                        last[id] = row.version();
+                        for (long version : row.columnVersions().values()) {
+                            if (version > row.version()) {
+                                fail("Row " + id + " has a column newer "
+                                        + "than the row");
+                            }
+                        }
+                        // Every version past the first is one increment
+                        if (row.value().total() != row.version() - 1) {
+                            fail("Row " + id + " at version " + row.version()
+                                    + " holds " + row.value().total()
+                                    + " increments");
+                        }
+                    }
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread editor : editors) {
+            editor.join();
+        }
+        editing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        long durationNanos = System.nanoTime() - start;
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(
+                    failures.size() + " thread(s) failed");
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+
+        for (int id = 0; id < ROWS; id++) {
+            VersionedStore.Versioned<Counters> row = store.get(id);
+            for (int column = 0; column < COLUMNS.length; column++) {
+                long expected = applied.get(id * COLUMNS.length + column);
+                if (row.value().get(column) != expected) {
+                    fail("Row " + id + " column " + COLUMNS[column] + " is "
+                            + row.value().get(column) + ", expected "
+                            + expected);
+                }
+            }
+            BitSet versions = announced.getOrDefault(id, new BitSet());
+            if (versions.cardinality() != row.version() - 1
+                    || versions.nextClearBit(2) != row.version() + 1) {
+                fail("Row " + id + " at version " + row.version()
+                        + " announced versions " + versions);
+            }
+        }
+
+        VersionedStore.Statistics stats = store.getStatistics();
+        long attempts = (long) EDITORS * UPDATES_PER_EDITOR;
+        if (stats.updates() + stats.conflicts() != attempts
+                || stats.conflicts() != rejected.sum()) {
+            fail("Statistics " + stats + " do not add up to " + attempts
+                    + " attempts");
+        }
+        System.out.printf(
+                "%d updates by %d editors in %.0f ms: %d applied, %d "
+                        + "conflicts, %d compare-and-set retries, all "
+                        + "invariants held%n",
+                attempts, EDITORS, durationNanos / 1e6, stats.updates(),
+                stats.conflicts(), stats.retries());
+    }
+
+    private static Thread start(ConcurrentLinkedQueue<Throwable> failures,
+            Runnable task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void fail(String message) {
+        throw new AssertionError(message);
+    }
+
+    /**
+     * An immutable row of three counters.
+     */
+    private record Counters(long a, long b, long c) {
+
+        long get(int column) {
+            return switch (column) {
+            case 0 -> a;
+            case 1 -> b;
+            default -> c;
+            };
+        }
+
+        Counters increment(int column) {
+            return switch (column) {
+            case 0 -> new Counters(a + 1, b, c);
+            case 1 -> new Counters(a, b + 1, c);
+            default -> new Counters(a, b, c + 1);
+            };
+        }
+
+        long total() {
+            return a + b + c;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.vaadin.flow.demo.data.WriteBehindBuffer.Cell;
+
+/**
+ * Measures the flush throughput of {@link WriteBehindBuffer} against a store
+ * that costs one round-trip per batch, and checks that every cell ends up
+ * with the last value written to it.
+ * <p>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a cell has the wrong value.
+ */
+public class WriteBehindBufferBenchmark {
+
+    private static final int EDITORS = 8;
+    private static final int EDITS_PER_EDITOR = 50_000;
+    private static final int CELLS_PER_EDITOR = 20_000;
+    // Editors pause briefly now and then, like people typing in bursts
+    private static final int EDITS_PER_BURST = 500;
+    private static final long ROUND_TRIP_MILLIS = 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int batchSize : new int[] { 1, 50, 500 }) {
+            run(batchSize);
+        }
+    }
+
+    private static void run(int batchSize) throws InterruptedException {
+        Map<Cell<Integer>, Integer> store = new ConcurrentHashMap<>();
+        WriteBehindBuffer<Integer, Integer> buffer = new WriteBehindBuffer<>(
+                batch -> {
+                    sleep(ROUND_TRIP_MILLIS);
+                    store.putAll(batch);
+                    return Map.of();
+                }, batchSize, Duration.ofMillis(100));
+
+        // Each editor owns its cells, so the last value per cell is known
+        List<Map<Cell<Integer>, Integer>> expected = new ArrayList<>();
+        List<Thread> editors = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int editor = 0; editor < EDITORS; editor++) {
+            Map<Cell<Integer>, Integer> last = new HashMap<>();
+            expected.add(last);
+            int firstRow = editor * CELLS_PER_EDITOR;
+            editors.add(Thread.startVirtualThread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < EDITS_PER_EDITOR; i++) {
+                    Cell<Integer> cell = new Cell<>(
+                            firstRow + random.nextInt(CELLS_PER_EDITOR),
+                            "price");
+                    buffer.enqueue(cell.rowId(), cell.column(), i);
+                    last.put(cell, i);
+                    if (i % EDITS_PER_BURST == EDITS_PER_BURST - 1) {
+                        sleep(1);
+                    }
+                }
+            }));
+        }
+        for (Thread editor : editors) {
+            editor.join();
+        }
+        long enqueuedNanos = System.nanoTime() - start;
+        buffer.close();
+        long totalNanos = System.nanoTime() - start;
+
+        for (Map<Cell<Integer>, Integer> last : expected) {
+            last.forEach((cell, value) -> {
+                if (!value.equals(store.get(cell))) {
+                    throw new AssertionError(cell + " is " + store.get(cell)
+                            + ", expected " + value);
+                }
+            });
+        }
+        WriteBehindBuffer.Statistics stats = buffer.getStatistics();
+        System.out.printf(
+                "batch size %4d: %d edits enqueued in %.0f ms, all written "
+                        + "after %.0f ms, %d coalesced, %d cells in %d "
+                        + "batches, %.0f cells/s while flushing (%.0f s "
+                        + "with a round-trip per edit)%n",
+                batchSize, stats.enqueued(), enqueuedNanos / 1e6,
+                totalNanos / 1e6, stats.coalesced(), stats.written(),
+                stats.batches(), stats.cellsPerSecond(),
+                stats.enqueued() * ROUND_TRIP_MILLIS / 1000.0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.vaadin.flow.demo.upload.ChunkedUploadHandler.CompletedUpload;
+
+/**
+ * Sends files through {@link ChunkedUploadHandler} over connections that are
+ * cut part way through a chunk, and checks that the uploads resume to the
+ * exact file.
+ * <p>
+ * Chunks are sent out of order, from several threads, with duplicates of the
+ * same chunk in flight at once. In the first pass a share of the connections
+ * fail mid-chunk and are not retried, like a browser going offline; the
+ * harness then probes for the missing chunks, as a reload would, and sends
+ * only those. It checks that:
+ * <ul>
+ * <li>the probe reports exactly the chunks whose connection failed;</li>
+ * <li>exactly one chunk completes the upload, and the file has the SHA-256
+ * hash of what was sent;</li>
+ * <li>probes and chunks retried after completion do not create state;</li>
+ * <li>a session cannot open more than
+ * {@link ChunkedUploadHandler#MAX_UPLOADS_PER_SESSION} uploads;</li>
+ * <li>malformed headers are refused with 400 and oversized files with
+ * 413.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class ChunkedUploadResume {
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final int CHUNKS = 64;
+    // Not a multiple of the chunk size, so the last chunk is short
+    private static final int SIZE = CHUNKS * CHUNK_SIZE - 1000;
+    private static final int ROUNDS = 20;
+    private static final double FAILURE_RATE = 0.3;
+    private static final int THREADS = 4;
+
+    public static void main(String[] args) throws Exception {
+        ChunkedUploadHandler handler = new ChunkedUploadHandler(CHUNK_SIZE,
+                SIZE, file -> {
+                });
+        Random random = new Random(42);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        int failures = 0;
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                failures += resume(handler, executor, random, round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf(
+                "%d uploads of %d chunks resumed after %d cut connections in %d ms%n",
+                ROUNDS, CHUNKS, failures, durationMillis);
+
+        checkLimits(handler);
+        check(ChunkedUploadHandler.partialUploadCount() == 0,
+                "uploads left behind: "
+                        + ChunkedUploadHandler.partialUploadCount());
+        System.out.println("All checks passed");
+    }
+
+    /**
+     * Sends one file with cut connections, resumes it and checks the result.
+     *
+     * @return the number of connections cut
+     */
+    private static int resume(ChunkedUploadHandler handler,
+            ExecutorService executor, Random random, int round)
+            throws Exception {
+        byte[] data = new byte[SIZE];
+        random.nextBytes(data);
+        String session = "session-" + round;
+        String uploadId = "file-" + round;
+
+        String probe = ChunkedUploadHandler.missingChunks(session,
+                request(handler, uploadId, -1));
+        check(probe.equals("0-" + (CHUNKS - 1)),
+                "unknown upload probed as " + probe);
+        check(ChunkedUploadHandler.partialUploadCount() == 0,
+                "a probe created state");
+
+        // First pass: every chunk once and some twice, some connections cut
+        List<Integer> order = new ArrayList<>();
+        BitSet cut = new BitSet();
+        for (int index = 0; index < CHUNKS; index++) {
+            order.add(index);
+            if (random.nextInt(4) == 0) {
+                order.add(index);
+            }
+        }
+        Collections.shuffle(order, random);
+        List<Boolean> failing = new ArrayList<>();
+        BitSet sent = new BitSet();
+        for (int index : order) {
+            boolean fail = random.nextDouble() < FAILURE_RATE;
+            failing.add(fail);
+            if (fail) {
+                cut.set(index);
+            } else {
+                sent.set(index);
+            }
+        }
+        // A chunk is only missing if none of its copies arrived
+        BitSet missing = (BitSet) cut.clone();
+        missing.andNot(sent);
+        check(!missing.isEmpty(), "no connection was cut");
+
+        Queue<CompletedUpload> completions = new ConcurrentLinkedQueue<>();
+        List<Future<?>> pending = new ArrayList<>();
+        for (int i = 0; i < order.size(); i++) {
+            int index = order.get(i);
+            boolean fail = failing.get(i);
+            pending.add(executor.submit(() -> {
+                send(handler, session, uploadId, data, index, fail,
+                        completions);
+                return null;
+            }));
+        }
+        int cuts = await(pending);
+
+        probe = ChunkedUploadHandler.missingChunks(session,
+                request(handler, uploadId, -1));
+        String expected = ranges(missing);
+        check(probe.equals(expected),
+                "probe reported " + probe + " instead of " + expected);
+        check(completions.isEmpty(), "completed with chunks missing");
+
+        // Second pass: the missing chunks, each sent twice at once
+        pending.clear();
+        for (int index = missing.nextSetBit(0); index >= 0; index = missing
+                .nextSetBit(index + 1)) {
+            int chunk = index;
+            for (int copy = 0; copy < 2; copy++) {
+                pending.add(executor.submit(() -> {
+                    send(handler, session, uploadId, data, chunk, false,
+                            completions);
+                    return null;
+                }));
+            }
+        }
+        await(pending);
+
+        check(completions.size() == 1,
+                completions.size() + " chunks completed the upload");
+        CompletedUpload file = completions.poll();
+        try {
+            check(file.size() == SIZE && Files.size(file.path()) == SIZE,
+                    "completed file has " + Files.size(file.path())
+                            + " bytes");
+            check(MessageDigest.isEqual(sha256(data),
+                    sha256(Files.readAllBytes(file.path()))),
+                    "completed file differs from what was sent");
+        } finally {
+            Files.deleteIfExists(file.path());
+        }
+
+        // A retry whose answer was lost is acknowledged without new state
+        send(handler, session, uploadId, data, CHUNKS - 1, false,
+                completions);
+        check(completions.isEmpty(), "a late retry completed again");
+        check(ChunkedUploadHandler.partialUploadCount() == 0,
+                "a late retry created state");
+        return cuts;
+    }
+
+    private static void checkLimits(ChunkedUploadHandler handler)
+            throws Exception {
+        Queue<CompletedUpload> completions = new ConcurrentLinkedQueue<>();
+        byte[] data = new byte[2 * CHUNK_SIZE];
+        String session = "limited";
+        int limit = ChunkedUploadHandler.MAX_UPLOADS_PER_SESSION;
+        for (int i = 0; i < limit; i++) {
+            send(handler, session, "open-" + i, data, 0, false, completions);
+        }
+        check(status(() -> send(handler, session, "open-" + limit, data, 0,
+                false, completions)) == 429,
+                "a session opened more than " + limit + " uploads");
+        // Another session is not affected
+        send(handler, "other", "open", data, 0, false, completions);
+        send(handler, "other", "open", data, 1, false, completions);
+        for (int i = 0; i < limit; i++) {
+            send(handler, session, "open-" + i, data, 1, false, completions);
+        }
+        check(completions.size() == limit + 1,
+                completions.size() + " limited uploads completed");
+        for (CompletedUpload file : completions) {
+            Files.deleteIfExists(file.path());
+        }
+
+        Map<String, String> valid = Map.of(ChunkedUploadHandler.UPLOAD_ID,
+                "id", ChunkedUploadHandler.CHUNK_INDEX, "0",
+                ChunkedUploadHandler.CHUNK_SIZE, String.valueOf(CHUNK_SIZE),
+                ChunkedUploadHandler.TOTAL_SIZE, String.valueOf(SIZE));
+        handler.parse(valid::get);
+        checkRefused(handler, valid, ChunkedUploadHandler.UPLOAD_ID, null,
+                400);
+        checkRefused(handler, valid, ChunkedUploadHandler.UPLOAD_ID,
+                "x".repeat(1000), 400);
+        checkRefused(handler, valid, ChunkedUploadHandler.CHUNK_INDEX, null,
+                400);
+        checkRefused(handler, valid, ChunkedUploadHandler.CHUNK_INDEX, "one",
+                400);
+        checkRefused(handler, valid, ChunkedUploadHandler.CHUNK_INDEX,
+                String.valueOf(CHUNKS), 400);
+        checkRefused(handler, valid, ChunkedUploadHandler.CHUNK_INDEX, "-2",
+                400);
+        checkRefused(handler, valid, ChunkedUploadHandler.CHUNK_SIZE, "1024",
+                400);
+        checkRefused(handler, valid, ChunkedUploadHandler.TOTAL_SIZE, "-1",
+                400);
+        checkRefused(handler, valid, ChunkedUploadHandler.TOTAL_SIZE,
+                "99999999999999999999", 400);
+        checkRefused(handler, valid, ChunkedUploadHandler.TOTAL_SIZE,
+                String.valueOf(SIZE + 1L), 413);
+    }
+
+    private static void checkRefused(ChunkedUploadHandler handler,
+            Map<String, String> valid, String header, String value,
+            int expected) {
+        int status = status(() -> handler.parse(name -> name.equals(header)
+                ? value
+                : valid.get(name)));
+        check(status == expected, header + ": " + value + " answered "
+                + status + " instead of " + expected);
+    }
+
+    private static ChunkedUploadHandler.ChunkRequest request(
+            ChunkedUploadHandler handler, String uploadId, int index)
+            throws IOException {
+        return handler.parse(Map.of(ChunkedUploadHandler.UPLOAD_ID, uploadId,
+                ChunkedUploadHandler.CHUNK_INDEX, String.valueOf(index),
+                ChunkedUploadHandler.CHUNK_SIZE, String.valueOf(CHUNK_SIZE),
+                ChunkedUploadHandler.TOTAL_SIZE,
+                String.valueOf(SIZE))::get);
+    }
+
+    private static void send(ChunkedUploadHandler handler, String session,
+            String uploadId, byte[] data, int index, boolean cut,
+            Queue<CompletedUpload> completions) throws IOException {
+        int from = index * CHUNK_SIZE;
+        int length = Math.min(CHUNK_SIZE, data.length - from);
+        InputStream in = new ByteArrayInputStream(data, from, length);
+        if (cut) {
+            in = new CutStream(in, length / 2);
+        }
+        ChunkedUploadHandler.ChunkRequest chunk = handler
+                .parse(Map.of(ChunkedUploadHandler.UPLOAD_ID, uploadId,
+                        ChunkedUploadHandler.CHUNK_INDEX,
+                        String.valueOf(index),
+                        ChunkedUploadHandler.CHUNK_SIZE,
+                        String.valueOf(CHUNK_SIZE),
+                        ChunkedUploadHandler.TOTAL_SIZE,
+                        String.valueOf(data.length))::get);
+        CompletedUpload file = handler.receive(session,
+                uploadId, chunk, in);
+        if (file != null) {
+            completions.add(file);
+        }
+    }
+
+    /**
+     * Waits for the sends and returns how many failed with a cut connection.
+     */
+    private static int await(List<Future<?>> sends) throws Exception {
+        int cuts = 0;
+        for (Future<?> send : sends) {
+            try {
+                send.get();
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof ConnectionCutException)) {
+                    throw e;
+                }
+                cuts++;
+            }
+        }
+        return cuts;
+    }
+
+    private static int status(Action action) {
+        try {
+            action.run();
+            return 200;
+        } catch (ChunkedUploadHandler.ChunkRejectedException e) {
+            return e.getStatus();
+        } catch (IOException e) {
+            throw new AssertionError("unexpected failure", e);
+        }
+    }
+
+    private static String ranges(BitSet missing) {
+        StringBuilder ranges = new StringBuilder();
+        for (int first = missing.nextSetBit(0); first >= 0; first = missing
+                .nextSetBit(first)) {
+            int last = missing.nextClearBit(first) - 1;
+            if (!ranges.isEmpty()) {
+                ranges.append(',');
+            }
+            ranges.append(first);
+            if (last > first) {
+                ranges.append('-').append(last);
+            }
+            first = last + 1;
+        }
+        return ranges.toString();
+    }
+
+    private static byte[] sha256(byte[] data) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static final class ConnectionCutException extends IOException {
+        ConnectionCutException() {
+            super("Connection reset");
+        }
+    }
+
+    /**
+     * A request body whose connection is cut after a number of bytes.
+     */
+    private static final class CutStream extends InputStream {
+
+        private final InputStream in;
+        private int remaining;
+
+        CutStream(InputStream in, int cutAfter) {
+            this.in = in;
+            this.remaining = cutAfter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length)
+                throws IOException {
+            if (remaining == 0) {
+                throw new ConnectionCutException();
+            }
+            int read = in.read(buffer, offset, Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
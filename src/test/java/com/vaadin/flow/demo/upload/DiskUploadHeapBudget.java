@@ -0,0 +1,177 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Streams a 2 GB upload through {@link DiskUploadHandler} and checks that the
+ * heap stays within a fixed budget while it does.
+ * <p>
+ * The upload body is generated on the fly, so the only memory involved is
+ * what the handler itself uses. The harness checks three things:
+ * <ul>
+ * <li>the bytes allocated by the uploading thread stay under
+ * {@link #ALLOCATION_BUDGET}, where keeping the file in memory would allocate
+ * at least its size;</li>
+ * <li>the peak heap use stays under {@link #HEAP_BUDGET} above what was in
+ * use before;</li>
+ * <li>the file on disk has the expected size and SHA-256 hash.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath,
+ * optionally with a directory for the temporary file. It exits with an
+ * exception if a check fails.
+ */
+public class DiskUploadHeapBudget {
+
+    private static final long SIZE = 2L * 1024 * 1024 * 1024;
+    private static final long ALLOCATION_BUDGET = 16L * 1024 * 1024;
+    private static final long HEAP_BUDGET = 64L * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(args.length > 0 ? args[0]
+                : System.getProperty("java.io.tmpdir"));
+        Path path = Files.createTempFile(directory, "heap-budget-", ".tmp");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        try {
+            System.gc();
+            long heapBefore = heapUsed();
+            ManagementFactory.getMemoryPoolMXBeans()
+                    .forEach(MemoryPoolMXBean::resetPeakUsage);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            UploadMetrics.Transfer transfer = UploadMetrics.shared()
+                    .begin(path.getFileName().toString(), SIZE);
+            long written;
+            try {
+                written = DiskUploadHandler.copy(new GeneratedStream(SIZE),
+                        path, SIZE, digest, transfer);
+            } finally {
+                transfer.end();
+            }
+
+            long durationNanos = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes()
+                    - allocatedBefore;
+            long heapGrowth = peakHeapUsed() - heapBefore;
+            long direct = ManagementFactory
+                    .getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                    .filter(pool -> pool.getName().equals("direct"))
+                    .mapToLong(BufferPoolMXBean::getMemoryUsed).sum();
+
+            String expectedHash = HexFormat.of()
+                    .formatHex(GeneratedStream.sha256(SIZE));
+            check(written == SIZE && Files.size(path) == SIZE,
+                    "Wrote " + written + " bytes, file has "
+                            + Files.size(path) + ", expected " + SIZE);
+            check(HexFormat.of().formatHex(digest.digest())
+                    .equals(expectedHash), "Hash mismatch");
+            check(allocated < ALLOCATION_BUDGET, "Allocated " + allocated
+                    + " bytes, budget " + ALLOCATION_BUDGET);
+            check(heapGrowth < HEAP_BUDGET, "Heap grew by " + heapGrowth
+                    + " bytes, budget " + HEAP_BUDGET);
+            System.out.printf(
+                    "%d MB streamed in %.1f s (%.0f MB/s): %.1f MB allocated "
+                            + "by the upload thread, peak heap %.1f MB above "
+                            + "the start, %.1f MB direct buffers%n",
+                    SIZE >> 20, durationNanos / 1e9,
+                    (SIZE >> 20) / (durationNanos / 1e9),
+                    allocated / 1048576.0, heapGrowth / 1048576.0,
+                    direct / 1048576.0);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage()
+                .getUsed();
+    }
+
+    private static long peakHeapUsed() {
+        // The sum of per-pool peaks overestimates the real peak, which only
+        // makes the check stricter
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * A deterministic stream of the given length that allocates nothing
+     * while it is read.
+     */
+    private static final class GeneratedStream extends InputStream {
+
+        private final long length;
+        private long position;
+
+        GeneratedStream(long length) {
+            this.length = length;
+        }
+
+        static byte at(long position) {
+            return (byte) (position * 31 + (position >>> 13));
+        }
+
+        static byte[] sha256(long length) throws Exception {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] block = new byte[64 * 1024];
+            try (GeneratedStream in = new GeneratedStream(length)) {
+                int read;
+                while ((read = in.read(block, 0, block.length)) > 0) {
+                    digest.update(block, 0, read);
+                }
+            }
+            return digest.digest();
+        }
+
+        @Override
+        public int read() {
+            return position < length ? at(position++) & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count)
+                throws IOException {
+            if (position >= length) {
+                return -1;
+            }
+            int read = (int) Math.min(count, length - position);
+            for (int i = 0; i < read; i++) {
+                buffer[offset + i] = at(position++);
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many simulated uploads through an {@link UploadGovernor} and checks
+ * its limits under load.
+ * <p>
+ * Each upload is a virtual thread reading a generated body through its
+ * permit, like the upload handlers do. The harness checks that:
+ * <ul>
+ * <li>with {@link #UPLOADS} uploads from {@link #SESSIONS} sessions arriving
+ * at once, no more than the concurrency limit run at a time, every upload
+ * completes, every upload that queues is told so, and the total rate stays
+ * within the budget;</li>
+ * <li>an upload that cannot get a slot within the maximum wait is rejected,
+ * after being told once that it is queued;</li>
+ * <li>a session with one upload gets the same bandwidth as a session with
+ * many.</li>
+ * </ul>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class UploadGovernorLoad {
+
+    private static final int UPLOADS = 1000;
+    private static final int SESSIONS = 200;
+    private static final int UPLOAD_SIZE = 128 * 1024;
+    private static final int MAX_CONCURRENT = 16;
+    private static final long BUDGET = 64L * 1024 * 1024;
+    // Allows for each bucket's quarter second of burst and timer slack
+    private static final double RATE_TOLERANCE = 1.15;
+
+    public static void main(String[] args) throws Exception {
+        checkLoad();
+        checkRejection();
+        checkFairness();
+        System.out.println("All checks passed");
+    }
+
+    private static void checkLoad() throws Exception {
+        UploadGovernor governor = new UploadGovernor(MAX_CONCURRENT, BUDGET,
+                Duration.ofSeconds(60));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger queuedCallbacks = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<Long>> uploads = new ArrayList<>();
+        try (ExecutorService executor = Executors
+                .newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < UPLOADS; i++) {
+                String session = "session-" + (i % SESSIONS);
+                uploads.add(executor.submit(() -> {
+                    try (UploadGovernor.Permit permit = governor.admit(session,
+                            queuedCallbacks::incrementAndGet)) {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(),
+                                Math::max);
+                        try {
+                            return drain(permit.throttle(
+                                    new GeneratedStream(UPLOAD_SIZE)));
+                        } finally {
+                            running.decrementAndGet();
+                        }
+                    }
+                }));
+            }
+        }
+        long durationNanos = System.nanoTime() - start;
+        long bytes = 0;
+        for (Future<Long> upload : uploads) {
+            bytes += upload.get();
+        }
+        double rate = bytes * 1_000_000_000.0 / durationNanos;
+        UploadGovernor.Statistics statistics = governor.getStatistics();
+        System.out.printf(
+                "%d uploads from %d sessions: %.1f MB in %d ms, %.1f MB/s of a %.1f MB/s budget, "
+                        + "at most %d running, %d queued%n",
+                UPLOADS, SESSIONS, bytes / 1048576.0, durationNanos / 1_000_000,
+                rate / 1048576, BUDGET / 1048576.0, maxRunning.get(),
+                statistics.queued());
+
+        check(bytes == (long) UPLOADS * UPLOAD_SIZE,
+                "received " + bytes + " bytes");
+        check(maxRunning.get() <= MAX_CONCURRENT,
+                maxRunning.get() + " uploads ran at once");
+        check(statistics.admitted() == UPLOADS && statistics.rejected() == 0,
+                statistics.admitted() + " admitted, " + statistics.rejected()
+                        + " rejected");
+        check(statistics.queued() == queuedCallbacks.get(),
+                statistics.queued() + " queued, " + queuedCallbacks.get()
+                        + " told so");
+        check(rate <= BUDGET * RATE_TOLERANCE,
+                String.format("%.1f MB/s is over the budget", rate / 1048576));
+        check(statistics.running() == 0 && statistics.waiting() == 0
+                && statistics.sessions() == 0, "left over: " + statistics);
+    }
+
+    private static void checkRejection() throws Exception {
+        Duration maxWait = Duration.ofMillis(200);
+        UploadGovernor governor = new UploadGovernor(2, BUDGET, maxWait);
+        AtomicInteger queuedCallbacks = new AtomicInteger();
+        // Both slots are taken while the third upload waits
+        UploadGovernor.Permit first = governor.admit("a", () -> {
+        });
+        UploadGovernor.Permit second = governor.admit("b", () -> {
+        });
+        try {
+            long start = System.nanoTime();
+            try {
+                governor.admit("c", queuedCallbacks::incrementAndGet).close();
+                throw new AssertionError("admitted a third upload");
+            } catch (UploadGovernor.UploadRejectedException e) {
+                long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("rejected after %d ms: %s%n", waitedMillis,
+                        e.getMessage());
+                check(waitedMillis >= maxWait.toMillis(),
+                        "rejected after only " + waitedMillis + " ms");
+            }
+        } finally {
+            first.close();
+            second.close();
+        }
+        check(queuedCallbacks.get() == 1,
+                "told " + queuedCallbacks.get() + " times about queueing");
+        check(governor.getStatistics().rejected() == 1, "rejection not counted");
+        // The slots are free again
+        governor.admit("c", () -> {
+        }).close();
+    }
+
+    private static void checkFairness() throws Exception {
+        long budget = 16L * 1024 * 1024;
+        Duration duration = Duration.ofSeconds(3);
+        UploadGovernor governor = new UploadGovernor(MAX_CONCURRENT, budget,
+                Duration.ofSeconds(1));
+        AtomicLong greedy = new AtomicLong();
+        AtomicLong single = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Void>> uploads = new ArrayList<>();
+        try (ExecutorService executor = Executors
+                .newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                uploads.add(executor.submit(() -> upload(governor, "greedy",
+                        deadline, greedy)));
+            }
+            uploads.add(executor.submit(() -> upload(governor, "single",
+                    deadline, single)));
+        }
+        for (Future<Void> upload : uploads) {
+            upload.get();
+        }
+        double ratio = (double) single.get() / greedy.get();
+        System.out.printf(
+                "8 uploads in one session: %.1f MB, 1 upload in another: %.1f MB, ratio %.2f%n",
+                greedy.get() / 1048576.0, single.get() / 1048576.0, ratio);
+        check(ratio > 0.8 && ratio < 1.25,
+                String.format("sessions got unequal shares: %.2f", ratio));
+        double rate = (greedy.get() + single.get()) * 1_000_000_000.0
+                / duration.toNanos();
+        check(rate <= budget * RATE_TOLERANCE,
+                String.format("%.1f MB/s is over the budget", rate / 1048576));
+    }
+
+    private static Void upload(UploadGovernor governor, String session,
+            long deadline, AtomicLong received) throws IOException {
+        try (UploadGovernor.Permit permit = governor.admit(session, () -> {
+        }); InputStream in = permit.throttle(
+                new GeneratedStream(Long.MAX_VALUE))) {
+            byte[] buffer = new byte[8192];
+            while (System.nanoTime() < deadline) {
+                received.addAndGet(in.read(buffer));
+            }
+        }
+        return null;
+    }
+
+    private static long drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            total += read;
+        }
+        return total;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * An upload body of the given size whose content does not matter.
+     */
+    private static final class GeneratedStream extends InputStream {
+
+        private long remaining;
+
+        GeneratedStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0) {
+                return -1;
+            }
+            remaining--;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = (int) Math.min(length, remaining);
+            remaining -= read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.demo.views;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.component.messages.MessageList;
+import com.vaadin.flow.component.messages.MessageListItem;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Compares two ways of adding a message to a {@link MessageList} that
+ * already holds {@link #HISTORY} messages: replacing the items with a copy
+ * of the history plus the new message, as the chat example used to, and
+ * {@link MessageList#addItem(MessageListItem)}, as it does now.
+ * <p>
+ * Each message is added to a list attached to a UI, and the response to the
+ * browser is then collected the way a round trip would: the state tree
+ * changes and the JavaScript calls, serialized. The harness reports the
+ * server time per message and the characters sent per message, and checks
+ * that appending sends a small constant amount, independent of the history.
+ * <p>
+ * A standalone harness: run {@link #main(String[])} with the test classpath.
+ * It exits with an exception if a check fails.
+ */
+public class MessageListBenchmark {
+
+    private static final int HISTORY = 10_000;
+    private static final int MESSAGES = 200;
+    // A few hundred characters for one message, with the call around it
+    private static final long MAX_APPEND_CHARS = 1_000;
+
+    public static void main(String[] args) {
+        UI ui = new UI();
+        ui.getInternals().setSession(new BenchmarkSession());
+
+        Result replace = null;
+        Result append = null;
+        // The first round warms up
+        for (int round = 0; round < 2; round++) {
+            replace = measure(ui, true);
+            append = measure(ui, false);
+        }
+        System.out.printf("%d messages added to a list of %d:%n", MESSAGES,
+                HISTORY);
+        System.out.printf("setItems: %8.1f µs and %,9d chars per message%n",
+                replace.micros(), replace.chars());
+        System.out.printf("addItem:  %8.1f µs and %,9d chars per message%n",
+                append.micros(), append.chars());
+
+        check(append.chars() <= MAX_APPEND_CHARS,
+                "addItem sent " + append.chars() + " chars per message");
+        check(replace.chars() > HISTORY * append.chars() / 10,
+                "setItems sent only " + replace.chars()
+                        + " chars per message");
+        System.out.println("All checks passed");
+    }
+
+    private static Result measure(UI ui, boolean replace) {
+        MessageList list = new MessageList();
+        ui.add(list);
+        List<MessageListItem> items = new ArrayList<>();
+        for (int i = 0; i < HISTORY; i++) {
+            items.add(new MessageListItem("Message number " + i
+                    + " in a long conversation", Instant.now(),
+                    "User " + i % 5));
+        }
+        list.setItems(new ArrayList<>(items));
+        respond(ui.getInternals());
+
+        long chars = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            MessageListItem message = new MessageListItem("New message " + i,
+                    Instant.now(), "You");
+            if (replace) {
+                items.add(message);
+                list.setItems(new ArrayList<>(items));
+            } else {
+                list.addItem(message);
+            }
+            chars += respond(ui.getInternals());
+        }
+        long nanos = System.nanoTime() - start;
+        check(list.getItems().size() == HISTORY + MESSAGES,
+                "the list has " + list.getItems().size() + " items");
+        ui.remove(list);
+        respond(ui.getInternals());
+        return new Result(nanos / 1e3 / MESSAGES, chars / MESSAGES);
+    }
+
+    /**
+     * Collects and serializes what the next response would send, and
+     * returns its length in characters.
+     */
+    private static long respond(UIInternals internals) {
+        internals.getStateTree().runExecutionsBeforeClientResponse();
+        long[] chars = { 0 };
+        ConstantPool constants = new ConstantPool();
+        internals.getStateTree().collectChanges(change -> chars[0] += change
+                .toJson(constants).toString().length());
+        internals.dumpPendingJavaScriptInvocations()
+                .forEach(invocation -> chars[0] += invocation.getInvocation()
+                        .getExpression().length()
+                        + invocation.getInvocation().getParameters().toString()
+                                .length());
+        return chars[0];
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private record Result(double micros, long chars) {
+    }
+
+    /**
+     * A session that is always locked by the benchmark thread, with a
+     * configuration that has every option at its default.
+     */
+    private static final class BenchmarkSession extends VaadinSession {
+
+        private final Lock lock = new ReentrantLock();
+
+        BenchmarkSession() {
+            super(null);
+            lock.lock();
+        }
+
+        @Override
+        public boolean hasLock() {
+            return true;
+        }
+
+        @Override
+        public void checkHasLock() {
+        }
+
+        @Override
+        public void checkHasLock(String message) {
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+
+        @Override
+        public DeploymentConfiguration getConfiguration() {
+            return (DeploymentConfiguration) Proxy.newProxyInstance(
+                    MessageListBenchmark.class.getClassLoader(),
+                    new Class<?>[] { DeploymentConfiguration.class },
+                    (proxy, method, args) -> {
+                        if (method.isDefault()) {
+                            return InvocationHandler.invokeDefault(proxy,
+                                    method, args);
+                        }
+                        Class<?> type = method.getReturnType();
+                        if (type == boolean.class) {
+                            return false;
+                        }
+                        if (type == int.class) {
+                            return 0;
+                        }
+                        if (type == long.class) {
+                            return 0L;
+                        }
+                        return null;
+                    });
+        }
+    }
+}